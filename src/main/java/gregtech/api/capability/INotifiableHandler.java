@@ -0,0 +1,24 @@
+package gregtech.api.capability;
+
+import gregtech.api.metatileentity.MetaTileEntity;
+
+/**
+ * Handler which notifies owning meta tile entity about every change of its contents,
+ * so its contents don't need to be polled for changes every tick
+ *
+ * @see MetaTileEntity#notifyInventoryChanged(boolean)
+ */
+public interface INotifiableHandler {
+
+    /**
+     * @return true if this handler is export handler of its meta tile entity, false otherwise
+     */
+    boolean isExport();
+
+    /**
+     * Notifies owning meta tile entity about change of contents which didn't go through this handler,
+     * for example when stack in slot was grown in place by container slot merging
+     */
+    void notifyContentsChanged();
+
+}
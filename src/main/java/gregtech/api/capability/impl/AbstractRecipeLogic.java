@@ -3,10 +3,12 @@ package gregtech.api.capability.impl;
 import gregtech.api.GTValues;
 import gregtech.api.capability.GregtechTileCapabilities;
 import gregtech.api.capability.IMultipleTankHandler;
+import gregtech.api.capability.INotifiableHandler;
 import gregtech.api.capability.IWorkable;
 import gregtech.api.metatileentity.MTETrait;
 import gregtech.api.metatileentity.MetaTileEntity;
 import gregtech.api.recipes.Recipe;
+import gregtech.api.recipes.RecipeInputSnapshot;
 import gregtech.api.recipes.RecipeMap;
 import gregtech.api.util.GTUtility;
 import gregtech.common.ConfigHolder;
@@ -18,7 +20,6 @@ import net.minecraft.util.NonNullList;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.fluids.FluidStack;
-import net.minecraftforge.fluids.IFluidTank;
 import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.items.IItemHandlerModifiable;
 
@@ -35,6 +36,17 @@ public abstract class AbstractRecipeLogic extends MTETrait implements IWorkable
     protected ItemStack[] lastItemInputs;
     protected FluidStack[] lastFluidInputs;
     protected Recipe previousRecipe;
+    protected final RecipeInputSnapshot inputSnapshot = new RecipeInputSnapshot();
+    protected final OverlayedItemHandler outputItemsOverlay = new OverlayedItemHandler();
+    protected final OverlayedFluidHandler outputFluidsOverlay = new OverlayedFluidHandler();
+    //whether notifiable input inventories changed since the last check
+    protected boolean hasNotifiedInputs = true;
+    private IItemHandler lastCheckedInputs;
+    private IMultipleTankHandler lastCheckedFluidInputs;
+    private boolean inputsAreNotifiable;
+    private IItemHandler lastCheckedOutputs;
+    private IMultipleTankHandler lastCheckedFluidOutputs;
+    private boolean outputsAreNotifiable;
     protected boolean allowOverclocking = true;
 
     protected int progressTime;
@@ -48,6 +60,9 @@ public abstract class AbstractRecipeLogic extends MTETrait implements IWorkable
     private boolean workingEnabled = true;
     private boolean hasNotEnoughEnergy;
     private boolean wasActiveAndNeedsUpdate;
+    //whether recipe was found, but couldn't be started because of missing energy or output space
+    private boolean isWaitingForResources;
+    private boolean isSleeping;
 
     public AbstractRecipeLogic(MetaTileEntity tileEntity, RecipeMap<?> recipeMap) {
         super(tileEntity);
@@ -106,6 +121,7 @@ public abstract class AbstractRecipeLogic extends MTETrait implements IWorkable
                     updateRecipeProgress();
                 }
                 if (progressTime == 0) {
+                    this.isWaitingForResources = false;
                     trySearchNewRecipe();
                 }
             }
@@ -113,7 +129,58 @@ public abstract class AbstractRecipeLogic extends MTETrait implements IWorkable
                 this.wasActiveAndNeedsUpdate = false;
                 setActive(false);
             }
+            if (canSleep()) {
+                this.isSleeping = true;
+            }
+        }
+    }
+
+    /**
+     * Checks whether this logic has nothing to do until it's woken up by inventory change,
+     * energy arrival, {@link #forceRecipeRecheck()} or {@link #setWorkingEnabled(boolean)}.
+     * Called at the end of the update, sleeping logic isn't updated until it wakes up
+     */
+    protected boolean canSleep() {
+        if (wasActiveAndNeedsUpdate) {
+            return false;
+        }
+        if (!workingEnabled) {
+            return true;
         }
+        if (progressTime > 0 || !updateInputsNotifiable(getInputInventory(), getInputTank())) {
+            return false;
+        }
+        if (isWaitingForResources) {
+            IItemHandler outputs = getOutputInventory();
+            IMultipleTankHandler fluidOutputs = getOutputTank();
+            if (lastCheckedOutputs != outputs || lastCheckedFluidOutputs != fluidOutputs) {
+                this.lastCheckedOutputs = outputs;
+                this.lastCheckedFluidOutputs = fluidOutputs;
+                this.outputsAreNotifiable = isNotifiable(outputs) && isNotifiable(fluidOutputs);
+            }
+            //only energy arrival is notified, so recipes producing energy can't wait for free energy capacity
+            boolean consumesEnergy = previousRecipe == null || previousRecipe.getEUt() >= 0;
+            return outputsAreNotifiable && consumesEnergy && isEnergyNotifiable();
+        }
+        return true;
+    }
+
+    /**
+     * @return true if energy container of this logic calls {@link MetaTileEntity#notifyEnergyReceived()}
+     * when energy is added to it, so logic waiting for energy can sleep
+     */
+    protected boolean isEnergyNotifiable() {
+        return false;
+    }
+
+    @Override
+    public boolean isSleeping() {
+        return isSleeping;
+    }
+
+    @Override
+    public void onEnergyReceived() {
+        this.isSleeping = false;
     }
 
     private void updateRecipeProgress() {
@@ -142,7 +209,7 @@ public abstract class AbstractRecipeLogic extends MTETrait implements IWorkable
         Recipe currentRecipe = null;
         IItemHandlerModifiable importInventory = getInputInventory();
         IMultipleTankHandler importFluids = getInputTank();
-        if (previousRecipe != null && previousRecipe.matches(false, importInventory, importFluids)) {
+        if (previousRecipe != null && previousRecipe.matches(false, inputSnapshot.bind(importInventory, importFluids))) {
             //if previous recipe still matches inputs, try to use it
             currentRecipe = previousRecipe;
         } else {
@@ -163,6 +230,7 @@ public abstract class AbstractRecipeLogic extends MTETrait implements IWorkable
 
     public void forceRecipeRecheck() {
         this.forceRecipeRecheck = true;
+        this.isSleeping = false;
     }
 
     protected int getMinTankCapacity(IMultipleTankHandler tanks) {
@@ -170,17 +238,42 @@ public abstract class AbstractRecipeLogic extends MTETrait implements IWorkable
             return 0;
         }
         int result = Integer.MAX_VALUE;
-        for(IFluidTank fluidTank : tanks.getFluidTanks()) {
-            result = Math.min(fluidTank.getCapacity(), result);
+        for (int i = 0; i < tanks.getTanks(); i++) {
+            result = Math.min(tanks.getTankAt(i).getCapacity(), result);
         }
         return result;
     }
 
     protected Recipe findRecipe(long maxVoltage, IItemHandlerModifiable inputs, IMultipleTankHandler fluidInputs) {
-        return recipeMap.findRecipe(maxVoltage, inputs, fluidInputs, getMinTankCapacity(getOutputTank()));
+        return recipeMap.findRecipe(maxVoltage, inputSnapshot.bind(inputs, fluidInputs), getMinTankCapacity(getOutputTank()));
+    }
+
+    @Override
+    public void onInventoryChanged(boolean isExport) {
+        if (!isExport) {
+            this.hasNotifiedInputs = true;
+        }
+        this.isSleeping = false;
+    }
+
+    private boolean updateInputsNotifiable(IItemHandler inputs, IMultipleTankHandler fluidInputs) {
+        if (lastCheckedInputs != inputs || lastCheckedFluidInputs != fluidInputs) {
+            //input inventories were replaced, for example because multiblock structure was reformed
+            this.lastCheckedInputs = inputs;
+            this.lastCheckedFluidInputs = fluidInputs;
+            this.inputsAreNotifiable = isNotifiable(inputs) && isNotifiable(fluidInputs);
+            this.hasNotifiedInputs = true;
+        }
+        return inputsAreNotifiable;
     }
 
     protected boolean checkRecipeInputsDirty(IItemHandler inputs, IMultipleTankHandler fluidInputs) {
+        if (updateInputsNotifiable(inputs, fluidInputs)) {
+            //inventories notify us about every change, so there is no need to compare their contents
+            boolean shouldRecheckRecipe = hasNotifiedInputs;
+            this.hasNotifiedInputs = false;
+            return shouldRecheckRecipe;
+        }
         boolean shouldRecheckRecipe = false;
         if (lastItemInputs == null || lastItemInputs.length != inputs.getSlots()) {
             this.lastItemInputs = new ItemStack[inputs.getSlots()];
@@ -216,6 +309,23 @@ public abstract class AbstractRecipeLogic extends MTETrait implements IWorkable
         return shouldRecheckRecipe;
     }
 
+    private static boolean isNotifiable(IItemHandler itemHandler) {
+        if (itemHandler instanceof ItemHandlerList) {
+            for (IItemHandler backingHandler : ((ItemHandlerList) itemHandler).getBackingHandlers()) {
+                if (!isNotifiable(backingHandler)) return false;
+            }
+            return true;
+        }
+        return itemHandler.getSlots() == 0 || itemHandler instanceof INotifiableHandler;
+    }
+
+    private static boolean isNotifiable(IMultipleTankHandler fluidHandler) {
+        for (int i = 0; i < fluidHandler.getTanks(); i++) {
+            if (!(fluidHandler.getTankAt(i) instanceof INotifiableHandler)) return false;
+        }
+        return true;
+    }
+
     private static boolean areItemStacksEqual(ItemStack stackA, ItemStack stackB) {
         return (stackA.isEmpty() && stackB.isEmpty()) ||
             (ItemStack.areItemsEqual(stackA, stackB) &&
@@ -226,14 +336,29 @@ public abstract class AbstractRecipeLogic extends MTETrait implements IWorkable
         int[] resultOverclock = calculateOverclock(recipe.getEUt(), getMaxVoltage(), recipe.getDuration());
         int totalEUt = resultOverclock[0] * resultOverclock[1];
         IItemHandlerModifiable importInventory = getInputInventory();
-        IItemHandlerModifiable exportInventory = getOutputInventory();
         IMultipleTankHandler importFluids = getInputTank();
-        IMultipleTankHandler exportFluids = getOutputTank();
+        this.isWaitingForResources = true;
         return (totalEUt >= 0 ? getEnergyStored() >= (totalEUt > getEnergyCapacity() / 2 ? resultOverclock[0] : totalEUt) :
             (getEnergyStored() - resultOverclock[0] <= getEnergyCapacity())) &&
-            MetaTileEntity.addItemsToItemHandler(exportInventory, true, recipe.getAllItemOutputs(exportInventory.getSlots())) &&
-            MetaTileEntity.addFluidsToFluidHandler(exportFluids, true, recipe.getFluidOutputs()) &&
-            recipe.matches(true, importInventory, importFluids);
+            canFitOutputs(recipe.getAllItemOutputs(getOutputInventory().getSlots()), recipe.getFluidOutputs()) &&
+            recipe.matches(true, inputSnapshot.bind(importInventory, importFluids));
+    }
+
+    /**
+     * Checks whether all given outputs fit into output inventories together.
+     * Insertions are recorded in output overlays, so they can be committed right after the check
+     */
+    protected boolean canFitOutputs(List<ItemStack> itemOutputs, List<FluidStack> fluidOutputs) {
+        OverlayedItemHandler itemsOverlay = outputItemsOverlay.reset(getOutputInventory());
+        for (int i = 0; i < itemOutputs.size(); i++) {
+            if (itemsOverlay.insertStackedItemStack(itemOutputs.get(i)) > 0) return false;
+        }
+        OverlayedFluidHandler fluidsOverlay = outputFluidsOverlay.reset(getOutputTank());
+        for (int i = 0; i < fluidOutputs.size(); i++) {
+            FluidStack fluidOutput = fluidOutputs.get(i);
+            if (fluidsOverlay.insertStackedFluidStack(fluidOutput) != fluidOutput.amount) return false;
+        }
+        return true;
     }
 
     protected int[] calculateOverclock(int EUt, long voltage, int duration) {
@@ -287,8 +412,14 @@ public abstract class AbstractRecipeLogic extends MTETrait implements IWorkable
     }
 
     protected void completeRecipe() {
-        MetaTileEntity.addItemsToItemHandler(getOutputInventory(), false, itemOutputs);
-        MetaTileEntity.addFluidsToFluidHandler(getOutputTank(), false, fluidOutputs);
+        if (canFitOutputs(itemOutputs, fluidOutputs)) {
+            outputItemsOverlay.commit();
+            outputFluidsOverlay.commit();
+        } else {
+            //output space was taken while recipe was running, so insert as much as possible
+            MetaTileEntity.addItemsToItemHandler(getOutputInventory(), false, itemOutputs);
+            MetaTileEntity.addFluidsToFluidHandler(getOutputTank(), false, fluidOutputs);
+        }
         this.progressTime = 0;
         setMaxProgress(0);
         this.recipeEUt = 0;
@@ -339,6 +470,7 @@ public abstract class AbstractRecipeLogic extends MTETrait implements IWorkable
     @Override
     public void setWorkingEnabled(boolean workingEnabled) {
         this.workingEnabled = workingEnabled;
+        this.isSleeping = false;
         metaTileEntity.markDirty();
     }
 
@@ -91,10 +91,14 @@ public class EnergyContainerHandler extends MTETrait implements IEnergyContainer
     }
 
     public void setEnergyStored(long energyStored) {
+        long oldEnergyStored = this.energyStored;
         this.energyStored = energyStored;
         if (!metaTileEntity.getWorld().isRemote) {
             metaTileEntity.markDirty();
             notifyEnergyListener(false);
+            if (energyStored > oldEnergyStored) {
+                metaTileEntity.notifyEnergyReceived();
+            }
         }
     }
 
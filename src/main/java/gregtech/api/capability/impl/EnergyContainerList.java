@@ -3,6 +3,7 @@ package gregtech.api.capability.impl;
 import gregtech.api.capability.IEnergyContainer;
 import net.minecraft.util.EnumFacing;
 
+import java.util.Collections;
 import java.util.List;
 
 public class EnergyContainerList implements IEnergyContainer {
@@ -13,6 +14,10 @@ public class EnergyContainerList implements IEnergyContainer {
         this.energyContainerList = energyContainerList;
     }
 
+    public List<IEnergyContainer> getEnergyContainers() {
+        return Collections.unmodifiableList(energyContainerList);
+    }
+
     @Override
     public long acceptEnergyFromNetwork(EnumFacing side, long voltage, long amperage) {
         long amperesUsed = 0L;
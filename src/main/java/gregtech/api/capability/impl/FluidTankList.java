@@ -39,6 +39,10 @@ public class FluidTankList implements IFluidHandler, IMultipleTankHandler, INBTS
         this.allowSameFluidFill = allowSameFluidFill;
     }
 
+    public boolean allowSameFluidFill() {
+        return allowSameFluidFill;
+    }
+
     public List<IFluidTank> getFluidTanks() {
         return Collections.unmodifiableList(fluidTanks);
     }
@@ -3,11 +3,21 @@ package gregtech.api.capability.impl;
 import gregtech.api.capability.IEnergyContainer;
 import gregtech.api.capability.IMultipleTankHandler;
 import gregtech.api.metatileentity.multiblock.RecipeMapMultiblockController;
+import gregtech.api.recipes.CountableIngredient;
 import gregtech.api.recipes.Recipe;
+import gregtech.api.recipes.RecipeInputSnapshot;
+import gregtech.common.ConfigHolder;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.NonNullList;
+import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.items.IItemHandlerModifiable;
 
+import java.util.List;
+
 public class MultiblockRecipeLogic extends AbstractRecipeLogic {
 
+    //recipe with multiplied inputs and outputs prepared by last setupAndConsumeRecipeInputs call
+    private Recipe parallelRecipe;
 
     public MultiblockRecipeLogic(RecipeMapMultiblockController tileEntity) {
         super(tileEntity, tileEntity.recipeMap);
@@ -18,7 +28,9 @@ public class MultiblockRecipeLogic extends AbstractRecipeLogic {
     }
 
     public void updateWorkable() {
-        super.update();
+        if (!isSleeping()) {
+            super.update();
+        }
     }
 
     public IEnergyContainer getEnergyContainer() {
@@ -50,16 +62,99 @@ public class MultiblockRecipeLogic extends AbstractRecipeLogic {
         return controller.getOutputFluidInventory();
     }
 
+    /**
+     * @return maximum amount of recipe copies this logic can run in parallel in single cycle
+     */
+    protected int getParallelLimit() {
+        return ConfigHolder.multiblockParallelLimit;
+    }
+
     @Override
     protected boolean setupAndConsumeRecipeInputs(Recipe recipe) {
         RecipeMapMultiblockController controller = (RecipeMapMultiblockController) metaTileEntity;
-        if (controller.checkRecipe(recipe, false) &&
-            super.setupAndConsumeRecipeInputs(recipe)) {
+        this.parallelRecipe = null;
+        if (!controller.checkRecipe(recipe, false)) {
+            return false;
+        }
+        //halve amount of parallel recipes until there is enough energy and output space for them
+        for (int parallelAmount = getParallelAmount(recipe); parallelAmount > 1; parallelAmount /= 2) {
+            Recipe multipliedRecipe = recipe.copyWithMultiplier(parallelAmount);
+            if (super.setupAndConsumeRecipeInputs(multipliedRecipe)) {
+                this.parallelRecipe = multipliedRecipe;
+                controller.checkRecipe(recipe, true);
+                return true;
+            }
+        }
+        if (super.setupAndConsumeRecipeInputs(recipe)) {
             controller.checkRecipe(recipe, true);
             return true;
         } else return false;
     }
 
+    @Override
+    protected void setupRecipe(Recipe recipe) {
+        if (parallelRecipe == null) {
+            super.setupRecipe(recipe);
+            return;
+        }
+        super.setupRecipe(parallelRecipe);
+        this.parallelRecipe = null;
+        //split multiplied outputs, so they can be saved to NBT with their stack size
+        NonNullList<ItemStack> splitOutputs = NonNullList.create();
+        for (ItemStack itemOutput : itemOutputs) {
+            int amountLeft = itemOutput.getCount();
+            while (amountLeft > 0) {
+                int stackSize = Math.min(amountLeft, itemOutput.getMaxStackSize());
+                ItemStack splitStack = itemOutput.copy();
+                splitStack.setCount(stackSize);
+                splitOutputs.add(splitStack);
+                amountLeft -= stackSize;
+            }
+        }
+        this.itemOutputs = splitOutputs;
+    }
+
+    /**
+     * @return amount of recipe copies which can be run with available inputs and energy input voltage
+     */
+    private int getParallelAmount(Recipe recipe) {
+        int parallelAmount = getParallelLimit();
+        if (parallelAmount <= 1 || recipe.getEUt() < 0) {
+            //energy producing recipes are never run in parallel
+            return 1;
+        }
+        if (recipe.getEUt() > 0) {
+            long maxAmountByVoltage = Math.min(getMaxVoltage(), Integer.MAX_VALUE) / recipe.getEUt();
+            parallelAmount = (int) Math.min(parallelAmount, maxAmountByVoltage);
+        }
+        RecipeInputSnapshot inputs = inputSnapshot.bind(getInputInventory(), getInputTank());
+        List<ItemStack> itemInputs = inputs.getItemInputs();
+        for (CountableIngredient ingredient : recipe.getInputs()) {
+            if (ingredient.getCount() == 0) continue;
+            int availableAmount = 0;
+            for (int i = 0; i < itemInputs.size(); i++) {
+                ItemStack itemStack = itemInputs.get(i);
+                if (!itemStack.isEmpty() && ingredient.getIngredient().apply(itemStack)) {
+                    availableAmount += itemStack.getCount();
+                }
+            }
+            parallelAmount = Math.min(parallelAmount, availableAmount / ingredient.getCount());
+        }
+        List<FluidStack> fluidInputs = inputs.getFluidInputs();
+        for (FluidStack fluidStack : recipe.getFluidInputs()) {
+            if (fluidStack.amount == 0) continue;
+            int availableAmount = 0;
+            for (int i = 0; i < fluidInputs.size(); i++) {
+                FluidStack fluidInTank = fluidInputs.get(i);
+                if (fluidInTank != null && fluidInTank.isFluidEqual(fluidStack)) {
+                    availableAmount += fluidInTank.amount;
+                }
+            }
+            parallelAmount = Math.min(parallelAmount, availableAmount / fluidStack.amount);
+        }
+        return parallelAmount;
+    }
+
     @Override
     protected long getEnergyStored() {
         return getEnergyContainer().getEnergyStored();
@@ -79,6 +174,18 @@ public class MultiblockRecipeLogic extends AbstractRecipeLogic {
         } else return false;
     }
 
+    @Override
+    protected boolean isEnergyNotifiable() {
+        IEnergyContainer energyContainer = getEnergyContainer();
+        if (!(energyContainer instanceof EnergyContainerList)) {
+            return energyContainer instanceof EnergyContainerHandler;
+        }
+        for (IEnergyContainer hatchContainer : ((EnergyContainerList) energyContainer).getEnergyContainers()) {
+            if (!(hatchContainer instanceof EnergyContainerHandler)) return false;
+        }
+        return true;
+    }
+
     @Override
     protected long getMaxVoltage() {
         return Math.max(getEnergyContainer().getInputVoltage(), getEnergyContainer().getOutputVoltage());
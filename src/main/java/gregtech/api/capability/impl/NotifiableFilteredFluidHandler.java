@@ -0,0 +1,40 @@
+package gregtech.api.capability.impl;
+
+import gregtech.api.capability.INotifiableHandler;
+import gregtech.api.metatileentity.MetaTileEntity;
+import net.minecraftforge.fluids.FluidStack;
+
+import javax.annotation.Nullable;
+
+public class NotifiableFilteredFluidHandler extends FilteredFluidHandler implements INotifiableHandler {
+
+    private final MetaTileEntity entityToNotify;
+    private final boolean isExport;
+
+    public NotifiableFilteredFluidHandler(int capacity, MetaTileEntity entityToNotify, boolean isExport) {
+        super(capacity);
+        this.entityToNotify = entityToNotify;
+        this.isExport = isExport;
+    }
+
+    @Override
+    public void setFluid(@Nullable FluidStack fluid) {
+        super.setFluid(fluid);
+        onContentsChanged();
+    }
+
+    @Override
+    protected void onContentsChanged() {
+        entityToNotify.notifyInventoryChanged(isExport);
+    }
+
+    @Override
+    public boolean isExport() {
+        return isExport;
+    }
+
+    @Override
+    public void notifyContentsChanged() {
+        entityToNotify.notifyInventoryChanged(isExport);
+    }
+}
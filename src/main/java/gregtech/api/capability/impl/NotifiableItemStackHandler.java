@@ -0,0 +1,32 @@
+package gregtech.api.capability.impl;
+
+import gregtech.api.capability.INotifiableHandler;
+import gregtech.api.metatileentity.MetaTileEntity;
+import net.minecraftforge.items.ItemStackHandler;
+
+public class NotifiableItemStackHandler extends ItemStackHandler implements INotifiableHandler {
+
+    private final MetaTileEntity entityToNotify;
+    private final boolean isExport;
+
+    public NotifiableItemStackHandler(int slots, MetaTileEntity entityToNotify, boolean isExport) {
+        super(slots);
+        this.entityToNotify = entityToNotify;
+        this.isExport = isExport;
+    }
+
+    @Override
+    protected void onContentsChanged(int slot) {
+        entityToNotify.notifyInventoryChanged(isExport);
+    }
+
+    @Override
+    public boolean isExport() {
+        return isExport;
+    }
+
+    @Override
+    public void notifyContentsChanged() {
+        entityToNotify.notifyInventoryChanged(isExport);
+    }
+}
@@ -0,0 +1,115 @@
+package gregtech.api.capability.impl;
+
+import gregtech.api.capability.IMultipleTankHandler;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fluids.IFluidTank;
+
+/**
+ * Transactional overlay over multiple tank handler which records simulated fills
+ * without modifying backing tanks, so multiple fluids can be simulated together.
+ * Unlike simulating fill of each fluid separately, fluids filled into overlay
+ * occupy tank space and cannot all fit into the same empty tank.
+ * <p>
+ * Overlay can be reused by calling {@link #reset(IMultipleTankHandler)}. It assumes backing
+ * tanks are not modified by anything else until overlay is committed or reset.
+ */
+public class OverlayedFluidHandler {
+
+    private IMultipleTankHandler backingHandler;
+    private boolean allowSameFluidFill;
+    //overlay fluids of tanks changed by simulated fills, null for untouched tanks
+    private FluidStack[] tankFluids = new FluidStack[0];
+    private int[] originalAmounts = new int[0];
+
+    /**
+     * Discards all recorded fills and binds overlay to the given handler
+     *
+     * @return this overlay
+     */
+    public OverlayedFluidHandler reset(IMultipleTankHandler backingHandler) {
+        this.backingHandler = backingHandler;
+        this.allowSameFluidFill = !(backingHandler instanceof FluidTankList) ||
+            ((FluidTankList) backingHandler).allowSameFluidFill();
+        int tanks = backingHandler.getTanks();
+        if (tankFluids.length != tanks) {
+            this.tankFluids = new FluidStack[tanks];
+            this.originalAmounts = new int[tanks];
+        } else {
+            for (int i = 0; i < tanks; i++) {
+                this.tankFluids[i] = null;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Simulates fill of the given fluid the same way {@link FluidTankList#fill} does:
+     * tanks with the same fluid are filled first, then empty tanks
+     *
+     * @return amount of fluid which was filled
+     */
+    public int insertStackedFluidStack(FluidStack fluidStack) {
+        int amountLeft = fluidStack.amount;
+        for (int i = 0; i < tankFluids.length; i++) {
+            if (fluidStack.isFluidEqual(getFluidInTank(i))) {
+                amountLeft -= fillTank(i, fluidStack, amountLeft);
+                if (!allowSameFluidFill || amountLeft == 0) {
+                    return fluidStack.amount - amountLeft;
+                }
+            }
+        }
+        for (int i = 0; i < tankFluids.length; i++) {
+            FluidStack fluidInTank = getFluidInTank(i);
+            if (fluidInTank == null || fluidInTank.amount == 0) {
+                amountLeft -= fillTank(i, fluidStack, amountLeft);
+                if (!allowSameFluidFill || amountLeft == 0) {
+                    return fluidStack.amount - amountLeft;
+                }
+            }
+        }
+        return fluidStack.amount - amountLeft;
+    }
+
+    /**
+     * Applies all recorded fills to the backing tanks
+     */
+    public void commit() {
+        for (int i = 0; i < tankFluids.length; i++) {
+            FluidStack overlayFluid = tankFluids[i];
+            if (overlayFluid == null) continue;
+            FluidStack filledFluid = overlayFluid.copy();
+            filledFluid.amount = overlayFluid.amount - originalAmounts[i];
+            backingHandler.getTankAt(i).fill(filledFluid, true);
+            this.tankFluids[i] = null;
+        }
+    }
+
+    private FluidStack getFluidInTank(int tank) {
+        FluidStack overlayFluid = tankFluids[tank];
+        return overlayFluid == null ? backingHandler.getTankAt(tank).getFluid() : overlayFluid;
+    }
+
+    private int fillTank(int tank, FluidStack fluidStack, int amount) {
+        FluidStack overlayFluid = tankFluids[tank];
+        if (overlayFluid == null) {
+            //tank is untouched, so ask it to respect its filters and capacity
+            IFluidTank fluidTank = backingHandler.getTankAt(tank);
+            FluidStack fluidToFill = fluidStack.copy();
+            fluidToFill.amount = amount;
+            int filledAmount = fluidTank.fill(fluidToFill, false);
+            if (filledAmount > 0) {
+                int originalAmount = fluidTank.getFluidAmount();
+                this.originalAmounts[tank] = originalAmount;
+                fluidToFill.amount = originalAmount + filledAmount;
+                this.tankFluids[tank] = fluidToFill;
+            }
+            return filledAmount;
+        }
+        int filledAmount = Math.min(amount, backingHandler.getTankAt(tank).getCapacity() - overlayFluid.amount);
+        if (filledAmount > 0) {
+            overlayFluid.amount += filledAmount;
+            return filledAmount;
+        }
+        return 0;
+    }
+}
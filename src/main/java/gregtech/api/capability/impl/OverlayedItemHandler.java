@@ -0,0 +1,103 @@
+package gregtech.api.capability.impl;
+
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemHandlerHelper;
+
+/**
+ * Transactional overlay over item handler which records simulated insertions
+ * without modifying backing handler, so multiple stacks can be simulated together.
+ * Unlike simulating insertion of each stack separately, stacks inserted into overlay
+ * occupy slot space and cannot all fit into the same free slot.
+ * <p>
+ * Overlay can be reused by calling {@link #reset(IItemHandler)}. It assumes backing
+ * handler is not modified by anything else until overlay is committed or reset.
+ */
+public class OverlayedItemHandler {
+
+    private IItemHandler backingHandler;
+    //overlay stacks of slots changed by simulated insertions, null for untouched slots
+    private ItemStack[] slotStacks = new ItemStack[0];
+    private int[] originalCounts = new int[0];
+
+    /**
+     * Discards all recorded insertions and binds overlay to the given handler
+     *
+     * @return this overlay
+     */
+    public OverlayedItemHandler reset(IItemHandler backingHandler) {
+        this.backingHandler = backingHandler;
+        int slots = backingHandler.getSlots();
+        if (slotStacks.length != slots) {
+            this.slotStacks = new ItemStack[slots];
+            this.originalCounts = new int[slots];
+        } else {
+            for (int i = 0; i < slots; i++) {
+                this.slotStacks[i] = null;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Simulates insertion of the given stack the same way {@link ItemHandlerHelper#insertItemStacked} does:
+     * slots with the same item are filled first, then empty slots
+     *
+     * @return amount of items which didn't fit
+     */
+    public int insertStackedItemStack(ItemStack itemStack) {
+        int amountLeft = itemStack.getCount();
+        for (int i = 0; i < slotStacks.length && amountLeft > 0; i++) {
+            ItemStack stackInSlot = getStackInSlot(i);
+            if (!stackInSlot.isEmpty() && ItemHandlerHelper.canItemStacksStack(stackInSlot, itemStack)) {
+                amountLeft -= insertIntoSlot(i, itemStack, amountLeft);
+            }
+        }
+        for (int i = 0; i < slotStacks.length && amountLeft > 0; i++) {
+            if (getStackInSlot(i).isEmpty()) {
+                amountLeft -= insertIntoSlot(i, itemStack, amountLeft);
+            }
+        }
+        return amountLeft;
+    }
+
+    /**
+     * Applies all recorded insertions to the backing handler
+     */
+    public void commit() {
+        for (int i = 0; i < slotStacks.length; i++) {
+            ItemStack overlayStack = slotStacks[i];
+            if (overlayStack == null) continue;
+            int insertedAmount = overlayStack.getCount() - originalCounts[i];
+            backingHandler.insertItem(i, ItemHandlerHelper.copyStackWithSize(overlayStack, insertedAmount), false);
+            this.slotStacks[i] = null;
+        }
+    }
+
+    private ItemStack getStackInSlot(int slot) {
+        ItemStack overlayStack = slotStacks[slot];
+        return overlayStack == null ? backingHandler.getStackInSlot(slot) : overlayStack;
+    }
+
+    private int insertIntoSlot(int slot, ItemStack itemStack, int amount) {
+        ItemStack overlayStack = slotStacks[slot];
+        if (overlayStack == null) {
+            //slot is untouched, so ask backing handler to respect its filters and limits
+            ItemStack remainder = backingHandler.insertItem(slot, ItemHandlerHelper.copyStackWithSize(itemStack, amount), true);
+            int insertedAmount = amount - remainder.getCount();
+            if (insertedAmount > 0) {
+                ItemStack stackInSlot = backingHandler.getStackInSlot(slot);
+                this.originalCounts[slot] = stackInSlot.getCount();
+                this.slotStacks[slot] = ItemHandlerHelper.copyStackWithSize(itemStack, stackInSlot.getCount() + insertedAmount);
+            }
+            return insertedAmount;
+        }
+        int slotLimit = Math.min(backingHandler.getSlotLimit(slot), itemStack.getMaxStackSize());
+        int insertedAmount = Math.min(amount, slotLimit - overlayStack.getCount());
+        if (insertedAmount > 0) {
+            overlayStack.grow(insertedAmount);
+            return insertedAmount;
+        }
+        return 0;
+    }
+}
@@ -34,6 +34,11 @@ public class RecipeLogicEnergy extends AbstractRecipeLogic {
         } else return false;
     }
 
+    @Override
+    protected boolean isEnergyNotifiable() {
+        return energyContainer.get() instanceof EnergyContainerHandler;
+    }
+
     @Override
     protected long getMaxVoltage() {
         return Math.max(energyContainer.get().getInputVoltage(),
@@ -1,6 +1,7 @@
 package gregtech.api.capability.impl;
 
 import gregtech.api.GTValues;
+import gregtech.api.capability.IMultipleTankHandler;
 import gregtech.api.damagesources.DamageSources;
 import gregtech.api.metatileentity.MetaTileEntity;
 import gregtech.api.recipes.Recipe;
@@ -22,6 +23,8 @@ import net.minecraftforge.fluids.IFluidTank;
 
 public class RecipeLogicSteam extends AbstractRecipeLogic {
 
+    private static final IMultipleTankHandler NO_FLUID_INPUTS = new FluidTankList(false);
+
     private final IFluidTank steamFluidTank;
     private final boolean isHighPressure;
     private final double conversionRate; //energy units per millibucket
@@ -37,6 +40,12 @@ public class RecipeLogicSteam extends AbstractRecipeLogic {
         this.isHighPressure = isHighPressure;
     }
 
+    @Override
+    protected IMultipleTankHandler getInputTank() {
+        //steam tank is energy source, not recipe input, so its changes shouldn't trigger recipe search
+        return NO_FLUID_INPUTS;
+    }
+
     public boolean isVentingStuck() {
         return needsVenting && ventingStuck;
     }
@@ -147,6 +156,12 @@ public class RecipeLogicSteam extends AbstractRecipeLogic {
         super.update();
     }
 
+    @Override
+    protected boolean canSleep() {
+        //venting is performed in update, so logic should stay awake until it's done
+        return !needsVenting && super.canSleep();
+    }
+
     @Override
     protected boolean setupAndConsumeRecipeInputs(Recipe recipe) {
         return !this.needsVenting && super.setupAndConsumeRecipeInputs(recipe);
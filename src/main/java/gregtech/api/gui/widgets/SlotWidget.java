@@ -1,5 +1,6 @@
 package gregtech.api.gui.widgets;
 
+import gregtech.api.capability.INotifiableHandler;
 import gregtech.api.gui.INativeWidget;
 import gregtech.api.gui.IRenderContext;
 import gregtech.api.gui.Widget;
@@ -151,6 +152,10 @@ public class SlotWidget extends Widget implements INativeWidget {
 
         @Override
         public void onSlotChanged() {
+            //container merging grows stacks in place, so handler itself doesn't see the change
+            if (getItemHandler() instanceof INotifiableHandler) {
+                ((INotifiableHandler) getItemHandler()).notifyContentsChanged();
+            }
             SlotWidget.this.onSlotChanged();
         }
 
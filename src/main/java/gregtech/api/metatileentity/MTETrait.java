@@ -32,6 +32,29 @@ public abstract class MTETrait {
     public void update() {
     }
 
+    /**
+     * Called when contents of notifiable inventory of the meta tile entity change
+     *
+     * @param isExport true if export inventory was changed, false if import one
+     */
+    public void onInventoryChanged(boolean isExport) {
+    }
+
+    /**
+     * Called when energy is added to energy container of the meta tile entity
+     */
+    public void onEnergyReceived() {
+    }
+
+    /**
+     * Sleeping traits are not updated by meta tile entity until they wake up
+     *
+     * @return true if this trait doesn't need to be updated now
+     */
+    public boolean isSleeping() {
+        return false;
+    }
+
     public NBTTagCompound serializeNBT() {
         return new NBTTagCompound();
     }
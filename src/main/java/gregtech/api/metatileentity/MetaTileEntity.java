@@ -12,9 +12,12 @@ import com.google.common.base.Preconditions;
 import gregtech.api.GregTechAPI;
 import gregtech.api.capability.GregtechTileCapabilities;
 import gregtech.api.capability.IEnergyContainer;
+import gregtech.api.capability.IMultipleTankHandler;
 import gregtech.api.capability.impl.FluidHandlerProxy;
 import gregtech.api.capability.impl.FluidTankList;
 import gregtech.api.capability.impl.ItemHandlerProxy;
+import gregtech.api.capability.impl.OverlayedFluidHandler;
+import gregtech.api.capability.impl.OverlayedItemHandler;
 import gregtech.api.cover.CoverBehavior;
 import gregtech.api.cover.CoverDefinition;
 import gregtech.api.cover.ICoverable;
@@ -553,7 +556,7 @@ public abstract class MetaTileEntity implements ICoverable {
 
     public void update() {
         for (MTETrait mteTrait : this.mteTraits) {
-            if (shouldUpdate(mteTrait)) {
+            if (!mteTrait.isSleeping() && shouldUpdate(mteTrait)) {
                 mteTrait.update();
             }
         }
@@ -576,6 +579,28 @@ public abstract class MetaTileEntity implements ICoverable {
         return true;
     }
 
+    /**
+     * Called by {@link gregtech.api.capability.INotifiableHandler} owned by this meta tile entity
+     * when its contents change. Notifies all traits of this meta tile entity about change
+     *
+     * @param isExport true if export inventory was changed, false if import one
+     */
+    public void notifyInventoryChanged(boolean isExport) {
+        for (int i = 0; i < mteTraits.size(); i++) {
+            mteTraits.get(i).onInventoryChanged(isExport);
+        }
+    }
+
+    /**
+     * Called by energy containers owned by this meta tile entity when energy is added to them.
+     * Notifies all traits of this meta tile entity about received energy
+     */
+    public void notifyEnergyReceived() {
+        for (int i = 0; i < mteTraits.size(); i++) {
+            mteTraits.get(i).onEnergyReceived();
+        }
+    }
+
     public final ItemStack getStackForm(int amount) {
         int metaTileEntityIntId = GregTechAPI.META_TILE_ENTITY_REGISTRY.getIdByObjectName(metaTileEntityId);
         return new ItemStack(GregTechAPI.MACHINE, amount, metaTileEntityIntId);
@@ -925,6 +950,14 @@ public abstract class MetaTileEntity implements ICoverable {
     }
 
     public static boolean addItemsToItemHandler(IItemHandler handler, boolean simulate, List<ItemStack> items) {
+        if (simulate) {
+            //simulate all stacks together, so they can't fit into the same free slot multiple times
+            OverlayedItemHandler overlayedHandler = new OverlayedItemHandler().reset(handler);
+            for (ItemStack stack : items) {
+                if (overlayedHandler.insertStackedItemStack(stack) > 0) return false;
+            }
+            return true;
+        }
         boolean insertedAll = true;
         for (ItemStack stack : items) {
             insertedAll &= ItemHandlerHelper.insertItemStacked(handler, stack, simulate).isEmpty();
@@ -934,6 +967,13 @@ public abstract class MetaTileEntity implements ICoverable {
     }
 
     public static boolean addFluidsToFluidHandler(IFluidHandler handler, boolean simulate, List<FluidStack> items) {
+        if (simulate && handler instanceof IMultipleTankHandler) {
+            OverlayedFluidHandler overlayedHandler = new OverlayedFluidHandler().reset((IMultipleTankHandler) handler);
+            for (FluidStack stack : items) {
+                if (overlayedHandler.insertStackedFluidStack(stack) != stack.amount) return false;
+            }
+            return true;
+        }
         boolean filledAll = true;
         for (FluidStack stack : items) {
             int filled = handler.fill(stack, !simulate);
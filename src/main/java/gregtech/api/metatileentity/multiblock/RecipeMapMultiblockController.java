@@ -79,6 +79,8 @@ public abstract class RecipeMapMultiblockController extends MultiblockWithDispla
     protected void formStructure(PatternMatchContext context) {
         super.formStructure(context);
         initializeAbilities();
+        //inventories were replaced, so recipe logic should wake up and check them
+        this.recipeMapWorkable.forceRecipeRecheck();
     }
 
     @Override
@@ -1,6 +1,5 @@
 package gregtech.api.pipenet;
 
-import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.math.BlockPos;
 
 import java.util.Map;
@@ -47,8 +46,7 @@ public abstract class MonolithicPipeNet<NodeDataType> extends PipeNet<NodeDataTy
     }
 
     @Override
-    public void deserializeNBT(NBTTagCompound nbt) {
-        super.deserializeNBT(nbt);
+    protected void onNodesLoaded() {
         //since net cannot exist in world without at least one node
         this.nodeData = getAllNodes().values().iterator().next().data;
     }
@@ -1,14 +1,21 @@
 package gregtech.api.pipenet;
 
+import gnu.trove.TCollections;
+import gnu.trove.iterator.TLongObjectIterator;
 import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
 import gnu.trove.map.TObjectIntMap;
 import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import gnu.trove.map.hash.TObjectIntHashMap;
+import gnu.trove.procedure.TLongProcedure;
+import gnu.trove.set.TLongSet;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.BlockPos.MutableBlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraftforge.common.util.Constants.NBT;
@@ -20,19 +27,25 @@ import java.util.Map.Entry;
 public abstract class PipeNet<NodeDataType> implements INBTSerializable<NBTTagCompound> {
 
     protected final WorldPipeNet<NodeDataType, PipeNet<NodeDataType>> worldData;
-    private final Map<BlockPos, Node<NodeDataType>> nodeByBlockPos = new HashMap<>();
-    private final Map<BlockPos, Node<NodeDataType>> unmodifiableNodeByBlockPos = Collections.unmodifiableMap(nodeByBlockPos);
-    private final Map<ChunkPos, Integer> ownedChunks = new HashMap<>();
+    //nodes and chunks are keyed by BlockPos#toLong and ChunkPos#asLong, so lookups by packed position don't allocate keys
+    private final TLongObjectMap<Node<NodeDataType>> nodeByBlockPos = new TLongObjectHashMap<>();
+    private final Map<BlockPos, Node<NodeDataType>> unmodifiableNodeByBlockPos = new NodeMapView();
+    private final TLongIntMap ownedChunks = new TLongIntHashMap();
     private long lastUpdate;
     boolean isValid = false;
+    //id of this net in saved region files, assigned when net is added to the world
+    int netId;
 
     public PipeNet(WorldPipeNet<NodeDataType, ? extends PipeNet> world) {
         //noinspection unchecked
         this.worldData = (WorldPipeNet<NodeDataType, PipeNet<NodeDataType>>) world;
     }
 
-    public Set<ChunkPos> getContainedChunks() {
-        return Collections.unmodifiableSet(ownedChunks.keySet());
+    /**
+     * @return chunks containing nodes of this net, as returned by {@link ChunkPos#asLong(int, int)}
+     */
+    public TLongSet getContainedChunks() {
+        return TCollections.unmodifiableSet(ownedChunks.keySet());
     }
 
     public World getWorldData() {
@@ -51,21 +64,38 @@ public abstract class PipeNet<NodeDataType> implements INBTSerializable<NBTTagCo
         this.lastUpdate = System.currentTimeMillis();
     }
 
+    /**
+     * @return unmodifiable view of all nodes of this net. Iterating it creates new key for every node,
+     * so prefer {@link #getNodeAt(BlockPos)} for lookups
+     */
     public Map<BlockPos, Node<NodeDataType>> getAllNodes() {
         return unmodifiableNodeByBlockPos;
     }
     
     public Node<NodeDataType> getNodeAt(BlockPos blockPos) {
-        return nodeByBlockPos.get(blockPos);
+        return nodeByBlockPos.get(blockPos.toLong());
     }
     
     public boolean containsNode(BlockPos blockPos) {
-        return nodeByBlockPos.containsKey(blockPos);
+        return nodeByBlockPos.containsKey(blockPos.toLong());
+    }
+
+    Node<NodeDataType> getNodeAt(long nodeKey) {
+        return nodeByBlockPos.get(nodeKey);
+    }
+
+    void forEachNodeKey(TLongProcedure procedure) {
+        this.nodeByBlockPos.forEachKey(procedure);
     }
 
     protected void addNodeSilently(BlockPos nodePos, Node<NodeDataType> node) {
-        this.nodeByBlockPos.put(nodePos, node);
+        long nodeKey = nodePos.toLong();
+        this.nodeByBlockPos.put(nodeKey, node);
+        if (isValid()) {
+            this.worldData.addNodeToIndex(nodeKey, this);
+        }
         checkAddedInChunk(nodePos);
+        worldData.markNodeDirty(nodePos);
     }
 
     protected void addNode(BlockPos nodePos, Node<NodeDataType> node) {
@@ -75,34 +105,38 @@ public abstract class PipeNet<NodeDataType> implements INBTSerializable<NBTTagCo
     }
 
     protected Node<NodeDataType> removeNodeWithoutRebuilding(BlockPos nodePos) {
-        Node<NodeDataType> removedNode = this.nodeByBlockPos.remove(nodePos);
+        long nodeKey = nodePos.toLong();
+        Node<NodeDataType> removedNode = this.nodeByBlockPos.remove(nodeKey);
+        if (isValid()) {
+            this.worldData.removeNodeFromIndex(nodeKey, this);
+        }
         ensureRemovedFromChunk(nodePos);
-        worldData.markDirty();
+        worldData.markNodeDirty(nodePos);
         return removedNode;
     }
 
     protected void removeNode(BlockPos nodePos) {
-        if (nodeByBlockPos.containsKey(nodePos)) {
+        if (containsNode(nodePos)) {
             Node<NodeDataType> selfNode = removeNodeWithoutRebuilding(nodePos);
             rebuildNetworkOnNodeRemoval(nodePos, selfNode);
         }
     }
 
     protected void checkAddedInChunk(BlockPos nodePos) {
-        ChunkPos chunkPos = new ChunkPos(nodePos);
-        int newValue = this.ownedChunks.compute(chunkPos, (pos, old) -> (old == null ? 0 : old) + 1);
+        long chunkKey = ChunkPos.asLong(nodePos.getX() >> 4, nodePos.getZ() >> 4);
+        int newValue = this.ownedChunks.adjustOrPutValue(chunkKey, 1, 1);
         if (newValue == 1 && isValid()) {
-            this.worldData.addPipeNetToChunk(chunkPos, this);
+            this.worldData.addPipeNetToChunk(chunkKey, this);
         }
     }
 
     protected void ensureRemovedFromChunk(BlockPos nodePos) {
-        ChunkPos chunkPos = new ChunkPos(nodePos);
-        int newValue = this.ownedChunks.compute(chunkPos, (pos, old) -> old == null ? 0 : old - 1);
+        long chunkKey = ChunkPos.asLong(nodePos.getX() >> 4, nodePos.getZ() >> 4);
+        int newValue = this.ownedChunks.adjustOrPutValue(chunkKey, -1, 0);
         if (newValue == 0) {
-            this.ownedChunks.remove(chunkPos);
+            this.ownedChunks.remove(chunkKey);
             if (isValid()) {
-                this.worldData.removePipeNetFromChunk(chunkPos, this);
+                this.worldData.removePipeNetFromChunk(chunkKey, this);
             }
         }
     }
@@ -117,6 +151,7 @@ public abstract class PipeNet<NodeDataType> implements INBTSerializable<NBTTagCo
             return;
         }
         setBlocked(selfNode, facing, isBlocked);
+        worldData.markNodeDirty(nodePos);
         BlockPos offsetPos = nodePos.offset(facing);
         PipeNet<NodeDataType> pipeNetAtOffset = worldData.getNetFromPos(offsetPos);
         if (pipeNetAtOffset == null) {
@@ -132,18 +167,11 @@ public abstract class PipeNet<NodeDataType> implements INBTSerializable<NBTTagCo
             if (isBlocked) {
                 //need to unblock node before doing canNodesConnectCheck
                 setBlocked(selfNode, facing, false);
-                if(canNodesConnect(selfNode, facing, getNodeAt(offsetPos), this)) {
-                    //now block again to call findAllConnectedBlocks
-                    setBlocked(selfNode, facing, true);
-                    HashMap<BlockPos, Node<NodeDataType>> thisENet = findAllConnectedBlocks(nodePos);
-                    if (!getAllNodes().equals(thisENet)) {
-                        //node visibility has changed, split network into 2
-                        //node that code below is similar to removeNodeInternal, but only for 2 networks, and without node removal
-                        PipeNet<NodeDataType> newPipeNet = worldData.createNetInstance();
-                        thisENet.keySet().forEach(this::removeNodeWithoutRebuilding);
-                        newPipeNet.transferNodeData(thisENet, this);
-                        worldData.addPipeNet(newPipeNet);
-                    }
+                boolean wasConnected = canNodesConnect(selfNode, facing, getNodeAt(offsetPos), this);
+                setBlocked(selfNode, facing, true);
+                if (wasConnected) {
+                    //node visibility could have changed, split network if nodes aren't connected anymore
+                    splitSeparatedParts(Arrays.asList(nodePos, offsetPos));
                 }
             }
             //there is another network on that side
@@ -167,10 +195,11 @@ public abstract class PipeNet<NodeDataType> implements INBTSerializable<NBTTagCo
         if (!containsNode(nodePos)) {
             return;
         }
-        HashMap<BlockPos, Node<NodeDataType>> selfConnectedBlocks = null;
+        List<BlockPos> disconnectedPositions = new ArrayList<>();
         Node<NodeDataType> selfNode = getNodeAt(nodePos);
         int oldMark = selfNode.mark;
         selfNode.mark = newMark;
+        worldData.markNodeDirty(nodePos);
         for (EnumFacing facing : EnumFacing.VALUES) {
             BlockPos offsetPos = nodePos.offset(facing);
             PipeNet<NodeDataType> otherPipeNet = worldData.getNetFromPos(offsetPos);
@@ -190,26 +219,14 @@ public abstract class PipeNet<NodeDataType> implements INBTSerializable<NBTTagCo
                 }
                 //marks are incompatible now, and this net is connected with it
             } else if (otherPipeNet == this) {
-                //search connected nodes from newly marked node
-                //populate self connected blocks lazily only once
-                if (selfConnectedBlocks == null) {
-                    selfConnectedBlocks = findAllConnectedBlocks(nodePos);
-                }
-                if (getAllNodes().equals(selfConnectedBlocks)) {
-                    continue; //if this node is still connected to this network, just continue
-                }
-                //otherwise, it is not connected
-                HashMap<BlockPos, Node<NodeDataType>> offsetConnectedBlocks = findAllConnectedBlocks(offsetPos);
-                //if in the result of remarking offset node has separated from main network,
-                //and it is also separated from current cable too, form new network for it
-                if (!offsetConnectedBlocks.equals(selfConnectedBlocks)) {
-                    offsetConnectedBlocks.keySet().forEach(this::removeNodeWithoutRebuilding);
-                    PipeNet<NodeDataType> offsetPipeNet = worldData.createNetInstance();
-                    offsetPipeNet.transferNodeData(offsetConnectedBlocks, this);
-                    worldData.addPipeNet(offsetPipeNet);
-                }
+                //offset node could have separated from this network, check it after all merges are done
+                disconnectedPositions.add(offsetPos);
             }
         }
+        if (!disconnectedPositions.isEmpty()) {
+            disconnectedPositions.add(nodePos);
+            splitSeparatedParts(disconnectedPositions);
+        }
         onConnectionsUpdate();
         worldData.markDirty();
     }
@@ -222,10 +239,17 @@ public abstract class PipeNet<NodeDataType> implements INBTSerializable<NBTTagCo
         }
     }
 
+    /**
+     * Called when blocks adjacent to the given node might have changed,
+     * for example when neighbour block was placed or removed
+     */
+    public void onNeighbourUpdate(BlockPos nodePos) {
+    }
+
     public boolean markNodeAsActive(BlockPos nodePos, boolean isActive) {
         if (containsNode(nodePos) && getNodeAt(nodePos).isActive != isActive) {
             getNodeAt(nodePos).isActive = isActive;
-            worldData.markDirty();
+            worldData.markNodeDirty(nodePos);
             onConnectionsUpdate();
             return true;
         }
@@ -259,67 +283,37 @@ public abstract class PipeNet<NodeDataType> implements INBTSerializable<NBTTagCo
             areNodesCustomContactable(first.data, second.data, secondPipeNet);
     }
 
-    //we need to search only this network
-    protected HashMap<BlockPos, Node<NodeDataType>> findAllConnectedBlocks(BlockPos startPos) {
-        HashMap<BlockPos, Node<NodeDataType>> observedSet = new HashMap<>();
-        observedSet.put(startPos, getNodeAt(startPos));
-        Node<NodeDataType> firstNode = getNodeAt(startPos);
-        MutableBlockPos currentPos = new MutableBlockPos(startPos);
-        Stack<EnumFacing> moveStack = new Stack<>();
-        main:
-        while (true) {
-            for (EnumFacing facing : EnumFacing.VALUES) {
-                currentPos.move(facing);
-                Node<NodeDataType> secondNode = getNodeAt(currentPos);
-                //if there is node, and it can connect with previous node, add it to list, and set previous node as current
-                if (secondNode != null && canNodesConnect(firstNode, facing, secondNode, this) && !observedSet.containsKey(currentPos)) {
-                    observedSet.put(currentPos.toImmutable(), getNodeAt(currentPos));
-                    firstNode = secondNode;
-                    moveStack.push(facing.getOpposite());
-                    continue main;
-                } else currentPos.move(facing.getOpposite());
-            }
-            if (!moveStack.isEmpty()) {
-                currentPos.move(moveStack.pop());
-                firstNode = getNodeAt(currentPos);
-            } else break;
+    /**
+     * Moves parts of this network which are no longer connected with each other into new networks.
+     * Largest part stays in this network
+     *
+     * @param startPositions positions of all nodes which lost some of their connections
+     */
+    private void splitSeparatedParts(List<BlockPos> startPositions) {
+        List<Map<BlockPos, Node<NodeDataType>>> separatedParts = new SeparatedPartsSearch<>(this, startPositions).findSeparatedParts();
+        for (Map<BlockPos, Node<NodeDataType>> separatedPart : separatedParts) {
+            PipeNet<NodeDataType> newPipeNet = worldData.createNetInstance();
+            //remove blocks that aren't connected with this network
+            separatedPart.keySet().forEach(this::removeNodeWithoutRebuilding);
+            newPipeNet.transferNodeData(separatedPart, this);
+            worldData.addPipeNet(newPipeNet);
         }
-        return observedSet;
     }
 
     //called when node is removed to rebuild network
     protected void rebuildNetworkOnNodeRemoval(BlockPos nodePos, Node<NodeDataType> selfNode) {
-        int amountOfConnectedSides = 0;
-        for (EnumFacing facing : EnumFacing.values()) {
+        List<BlockPos> connectedPositions = new ArrayList<>();
+        for (EnumFacing facing : EnumFacing.VALUES) {
             BlockPos offsetPos = nodePos.offset(facing);
-            if (containsNode(offsetPos))
-                amountOfConnectedSides++;
+            Node<NodeDataType> secondNode = getNodeAt(offsetPos);
+            if (secondNode != null && canNodesConnect(selfNode, facing, secondNode, this)) {
+                connectedPositions.add(offsetPos);
+            }
         }
         //if we are connected only on one side or not connected at all, we don't need to find connected blocks
         //because they are only on on side or doesn't exist at all
-        //this saves a lot of performance in big networks, which are quite big to depth-first them fastly
-        if (amountOfConnectedSides >= 2) {
-            for (EnumFacing facing : EnumFacing.VALUES) {
-                BlockPos offsetPos = nodePos.offset(facing);
-                Node<NodeDataType> secondNode = getNodeAt(offsetPos);
-                if (secondNode == null || !canNodesConnect(selfNode, facing, secondNode, this)) {
-                    //if there isn't any neighbour node, or it wasn't connected with us, just skip it
-                    continue;
-                }
-                HashMap<BlockPos, Node<NodeDataType>> thisENet = findAllConnectedBlocks(offsetPos);
-                if (getAllNodes().equals(thisENet)) {
-                    //if cable on some direction contains all nodes of this network
-                    //the network didn't change so keep it as is
-                    break;
-                } else {
-                    //and use them to create new network with caching active nodes set
-                    PipeNet<NodeDataType> energyNet = worldData.createNetInstance();
-                    //remove blocks that aren't connected with this network
-                    thisENet.keySet().forEach(this::removeNodeWithoutRebuilding);
-                    energyNet.transferNodeData(thisENet, this);
-                    worldData.addPipeNet(energyNet);
-                }
-            }
+        if (connectedPositions.size() >= 2) {
+            splitSeparatedParts(connectedPositions);
         }
         if (getAllNodes().isEmpty()) {
             //if this energy net is empty now, remove it
@@ -365,7 +359,7 @@ public abstract class PipeNet<NodeDataType> implements INBTSerializable<NBTTagCo
     @Override
     public NBTTagCompound serializeNBT() {
         NBTTagCompound compound = new NBTTagCompound();
-        compound.setTag("Nodes", serializeAllNodeList(nodeByBlockPos));
+        compound.setTag("Nodes", serializeAllNodeList(getAllNodes()));
         return compound;
     }
 
@@ -374,6 +368,13 @@ public abstract class PipeNet<NodeDataType> implements INBTSerializable<NBTTagCo
         this.nodeByBlockPos.clear();
         this.ownedChunks.clear();
         deserializeAllNodeList(nbt.getCompoundTag("Nodes"));
+        onNodesLoaded();
+    }
+
+    /**
+     * Called after all nodes of this net were loaded from saved data
+     */
+    protected void onNodesLoaded() {
     }
 
     protected void deserializeAllNodeList(NBTTagCompound compound) {
@@ -449,4 +450,53 @@ public abstract class PipeNet<NodeDataType> implements INBTSerializable<NBTTagCo
         return compound;
     }
 
+    /**
+     * Read-only map view of nodes keyed by positions, decoding keys of node storage on demand
+     */
+    private class NodeMapView extends AbstractMap<BlockPos, Node<NodeDataType>> {
+
+        private final Set<Entry<BlockPos, Node<NodeDataType>>> entrySet = new AbstractSet<Entry<BlockPos, Node<NodeDataType>>>() {
+            @Override
+            public Iterator<Entry<BlockPos, Node<NodeDataType>>> iterator() {
+                TLongObjectIterator<Node<NodeDataType>> iterator = nodeByBlockPos.iterator();
+                return new Iterator<Entry<BlockPos, Node<NodeDataType>>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<BlockPos, Node<NodeDataType>> next() {
+                        iterator.advance();
+                        return new SimpleImmutableEntry<>(BlockPos.fromLong(iterator.key()), iterator.value());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return nodeByBlockPos.size();
+            }
+        };
+
+        @Override
+        public Set<Entry<BlockPos, Node<NodeDataType>>> entrySet() {
+            return entrySet;
+        }
+
+        @Override
+        public int size() {
+            return nodeByBlockPos.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof BlockPos && nodeByBlockPos.containsKey(((BlockPos) key).toLong());
+        }
+
+        @Override
+        public Node<NodeDataType> get(Object key) {
+            return key instanceof BlockPos ? nodeByBlockPos.get(((BlockPos) key).toLong()) : null;
+        }
+    }
 }
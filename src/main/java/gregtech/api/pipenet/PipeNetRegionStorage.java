@@ -0,0 +1,211 @@
+package gregtech.api.pipenet;
+
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import gregtech.api.util.GTLog;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTSizeTracker;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraftforge.common.util.Constants.NBT;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores nodes of all pipe nets of the world in binary region files, each covering 32x32 chunks.
+ * Regions are marked dirty when their nodes change, and only dirty regions are rewritten on save.
+ * <p>
+ * Every region file contains NBT palette of node data values used in it, followed by fixed size record
+ * for every node with its position, id of its net, palette index, blocked connections, mark and active state
+ */
+class PipeNetRegionStorage<NodeDataType> {
+
+    private static final int FORMAT_VERSION = 1;
+    //region is 512x512 blocks
+    private static final int REGION_SHIFT = 9;
+    private static final int FLAG_ACTIVE = 1;
+    private static final int FLAG_HAS_MARK = 2;
+
+    private final TLongSet dirtyRegions = new TLongHashSet();
+    private File regionDirectory;
+
+    void setRegionDirectory(File regionDirectory) {
+        this.regionDirectory = regionDirectory;
+    }
+
+    void markNodeDirty(BlockPos nodePos) {
+        this.dirtyRegions.add(ChunkPos.asLong(nodePos.getX() >> REGION_SHIFT, nodePos.getZ() >> REGION_SHIFT));
+    }
+
+    void clearDirtyRegions() {
+        this.dirtyRegions.clear();
+    }
+
+    /**
+     * Rewrites all dirty regions with nodes they contain now, and deletes files of regions without nodes.
+     * Regions which failed to save are kept dirty and retried on next save
+     */
+    void saveDirtyRegions(TLongObjectMap<? extends PipeNet<NodeDataType>> pipeNetByNode) {
+        if (dirtyRegions.isEmpty() || regionDirectory == null) {
+            return;
+        }
+        if (!regionDirectory.isDirectory() && !regionDirectory.mkdirs()) {
+            GTLog.logger.error("Failed to create pipe net region directory {}", regionDirectory);
+            return;
+        }
+        TLongObjectMap<TLongList> nodesByRegion = new TLongObjectHashMap<>();
+        pipeNetByNode.forEachKey(nodeKey -> {
+            long regionKey = getRegionKey(nodeKey);
+            if (dirtyRegions.contains(regionKey)) {
+                TLongList regionNodes = nodesByRegion.get(regionKey);
+                if (regionNodes == null) {
+                    regionNodes = new TLongArrayList();
+                    nodesByRegion.put(regionKey, regionNodes);
+                }
+                regionNodes.add(nodeKey);
+            }
+            return true;
+        });
+        TLongIterator iterator = dirtyRegions.iterator();
+        while (iterator.hasNext()) {
+            long regionKey = iterator.next();
+            File regionFile = getRegionFile(regionKey);
+            TLongList regionNodes = nodesByRegion.get(regionKey);
+            try {
+                if (regionNodes == null) {
+                    Files.deleteIfExists(regionFile.toPath());
+                } else {
+                    writeRegion(regionFile, regionNodes, pipeNetByNode);
+                }
+                iterator.remove();
+            } catch (IOException exception) {
+                GTLog.logger.error("Failed to save pipe net region {}", regionFile, exception);
+            }
+        }
+    }
+
+    /**
+     * Reads nodes from all region files
+     *
+     * @param dataReader net used to read node data values
+     * @return loaded nodes grouped by ids of their nets
+     */
+    TIntObjectMap<Map<BlockPos, Node<NodeDataType>>> loadRegions(PipeNet<NodeDataType> dataReader) {
+        TIntObjectMap<Map<BlockPos, Node<NodeDataType>>> nodesByNet = new TIntObjectHashMap<>();
+        File[] regionFiles = regionDirectory == null ? null :
+            regionDirectory.listFiles((directory, name) -> name.startsWith("r.") && name.endsWith(".dat"));
+        if (regionFiles == null) {
+            return nodesByNet;
+        }
+        for (File regionFile : regionFiles) {
+            try {
+                readRegion(regionFile, dataReader, nodesByNet);
+            } catch (IOException exception) {
+                GTLog.logger.error("Failed to load pipe net region {}", regionFile, exception);
+            }
+        }
+        return nodesByNet;
+    }
+
+    private void writeRegion(File regionFile, TLongList regionNodes, TLongObjectMap<? extends PipeNet<NodeDataType>> pipeNetByNode) throws IOException {
+        TObjectIntMap<NodeDataType> paletteIndexes = new TObjectIntHashMap<>(10, 0.5f, -1);
+        NBTTagList paletteList = new NBTTagList();
+        for (int i = 0; i < regionNodes.size(); i++) {
+            long nodeKey = regionNodes.get(i);
+            PipeNet<NodeDataType> pipeNet = pipeNetByNode.get(nodeKey);
+            NodeDataType nodeData = pipeNet.getNodeAt(nodeKey).data;
+            if (!paletteIndexes.containsKey(nodeData)) {
+                NBTTagCompound dataTag = new NBTTagCompound();
+                pipeNet.writeNodeData(nodeData, dataTag);
+                paletteIndexes.put(nodeData, paletteList.tagCount());
+                paletteList.appendTag(dataTag);
+            }
+        }
+        NBTTagCompound paletteTag = new NBTTagCompound();
+        paletteTag.setTag("Palette", paletteList);
+
+        //write into temporary file first, so crash during save doesn't corrupt existing region
+        File tempFile = new File(regionFile.getPath() + ".tmp");
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tempFile))))) {
+            outputStream.writeInt(FORMAT_VERSION);
+            CompressedStreamTools.write(paletteTag, outputStream);
+            outputStream.writeInt(regionNodes.size());
+            for (int i = 0; i < regionNodes.size(); i++) {
+                long nodeKey = regionNodes.get(i);
+                PipeNet<NodeDataType> pipeNet = pipeNetByNode.get(nodeKey);
+                Node<NodeDataType> node = pipeNet.getNodeAt(nodeKey);
+                int flags = (node.isActive ? FLAG_ACTIVE : 0) | (node.mark != Node.DEFAULT_MARK ? FLAG_HAS_MARK : 0);
+                outputStream.writeLong(nodeKey);
+                outputStream.writeInt(pipeNet.netId);
+                outputStream.writeInt(paletteIndexes.get(node.data));
+                outputStream.writeByte(node.blockedConnections);
+                outputStream.writeByte(flags);
+                if (node.mark != Node.DEFAULT_MARK) {
+                    outputStream.writeInt(node.mark);
+                }
+            }
+        }
+        Files.move(tempFile.toPath(), regionFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static <NodeDataType> void readRegion(File regionFile, PipeNet<NodeDataType> dataReader, TIntObjectMap<Map<BlockPos, Node<NodeDataType>>> nodesByNet) throws IOException {
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(regionFile))))) {
+            int formatVersion = inputStream.readInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported pipe net region format " + formatVersion);
+            }
+            NBTTagList paletteList = CompressedStreamTools.read(inputStream, NBTSizeTracker.INFINITE)
+                .getTagList("Palette", NBT.TAG_COMPOUND);
+            List<NodeDataType> palette = new ArrayList<>();
+            for (int i = 0; i < paletteList.tagCount(); i++) {
+                palette.add(dataReader.readNodeData(paletteList.getCompoundTagAt(i)));
+            }
+            int nodeCount = inputStream.readInt();
+            for (int i = 0; i < nodeCount; i++) {
+                long nodeKey = inputStream.readLong();
+                int netId = inputStream.readInt();
+                NodeDataType nodeData = palette.get(inputStream.readInt());
+                int blockedConnections = inputStream.readUnsignedByte();
+                int flags = inputStream.readUnsignedByte();
+                int mark = (flags & FLAG_HAS_MARK) != 0 ? inputStream.readInt() : Node.DEFAULT_MARK;
+                Map<BlockPos, Node<NodeDataType>> netNodes = nodesByNet.get(netId);
+                if (netNodes == null) {
+                    netNodes = new HashMap<>();
+                    nodesByNet.put(netId, netNodes);
+                }
+                netNodes.put(BlockPos.fromLong(nodeKey), new Node<>(nodeData, blockedConnections, mark, (flags & FLAG_ACTIVE) != 0));
+            }
+        }
+    }
+
+    private File getRegionFile(long regionKey) {
+        return new File(regionDirectory, "r." + (int) regionKey + "." + (int) (regionKey >>> 32) + ".dat");
+    }
+
+    //decodes coordinates directly from BlockPos#toLong layout (26 bits x, 12 bits y, 26 bits z)
+    //to avoid allocating positions for every node of the world on save
+    private static long getRegionKey(long nodeKey) {
+        int x = (int) (nodeKey >> 38);
+        int z = (int) (nodeKey << 38 >> 38);
+        return ChunkPos.asLong(x >> REGION_SHIFT, z >> REGION_SHIFT);
+    }
+}
@@ -0,0 +1,134 @@
+package gregtech.api.pipenet;
+
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.*;
+
+/**
+ * Finds parts of pipe net which became separated from each other after some of its connections were broken.
+ * <p>
+ * Breadth-first searches are started from every node which lost connections and advanced in lockstep,
+ * one node at a time. Searches which meet each other are joined into one group, since their nodes are still connected.
+ * Search stops as soon as at most one group can still grow, so amount of visited nodes is proportional
+ * to the size of separated parts, and the largest part of the net is never traversed completely.
+ */
+class SeparatedPartsSearch<NodeDataType> {
+
+    private final PipeNet<NodeDataType> pipeNet;
+    private final TObjectIntMap<BlockPos> searchByNode = new TObjectIntHashMap<>(10, 0.5f, -1);
+    private final List<Map<BlockPos, Node<NodeDataType>>> visitedNodes = new ArrayList<>();
+    private final List<Queue<BlockPos>> searchQueues = new ArrayList<>();
+    //union-find parents of searches, searches with the same root are connected
+    private final int[] groupParents;
+    private int groupsCount;
+
+    SeparatedPartsSearch(PipeNet<NodeDataType> pipeNet, List<BlockPos> startPositions) {
+        this.pipeNet = pipeNet;
+        this.groupParents = new int[startPositions.size()];
+        this.groupsCount = startPositions.size();
+        for (int i = 0; i < startPositions.size(); i++) {
+            BlockPos startPos = startPositions.get(i);
+            this.groupParents[i] = i;
+            this.visitedNodes.add(new HashMap<>());
+            this.searchQueues.add(new ArrayDeque<>());
+            int ownerSearch = searchByNode.get(startPos);
+            if (ownerSearch == -1) {
+                this.searchByNode.put(startPos, i);
+                this.visitedNodes.get(i).put(startPos, pipeNet.getNodeAt(startPos));
+                this.searchQueues.get(i).add(startPos);
+            } else {
+                uniteGroups(i, ownerSearch);
+            }
+        }
+    }
+
+    /**
+     * @return nodes of every separated part except the largest one, which should stay in the net.
+     * Empty if all start nodes are still connected with each other
+     */
+    List<Map<BlockPos, Node<NodeDataType>>> findSeparatedParts() {
+        int growingGroup = -1;
+        while (groupsCount > 1) {
+            growingGroup = -1;
+            boolean multipleGroupsGrowing = false;
+            for (int i = 0; i < searchQueues.size(); i++) {
+                if (searchQueues.get(i).isEmpty()) continue;
+                int group = findGroup(i);
+                if (growingGroup == -1) {
+                    growingGroup = group;
+                } else if (growingGroup != group) {
+                    multipleGroupsGrowing = true;
+                }
+            }
+            if (!multipleGroupsGrowing) {
+                //all other groups are exhausted, so they are complete separated parts
+                break;
+            }
+            for (int i = 0; i < searchQueues.size(); i++) {
+                if (!searchQueues.get(i).isEmpty()) {
+                    visitNextNode(i);
+                }
+            }
+        }
+        if (groupsCount == 1) {
+            return Collections.emptyList();
+        }
+        Map<Integer, Map<BlockPos, Node<NodeDataType>>> nodesByGroup = new HashMap<>();
+        for (int i = 0; i < visitedNodes.size(); i++) {
+            nodesByGroup.computeIfAbsent(findGroup(i), group -> new HashMap<>()).putAll(visitedNodes.get(i));
+        }
+        if (growingGroup == -1) {
+            //every group was traversed completely, keep the largest one in the net
+            int largestSize = -1;
+            for (Map.Entry<Integer, Map<BlockPos, Node<NodeDataType>>> entry : nodesByGroup.entrySet()) {
+                if (entry.getValue().size() > largestSize) {
+                    largestSize = entry.getValue().size();
+                    growingGroup = entry.getKey();
+                }
+            }
+        }
+        nodesByGroup.remove(growingGroup);
+        return new ArrayList<>(nodesByGroup.values());
+    }
+
+    private void visitNextNode(int search) {
+        BlockPos nodePos = searchQueues.get(search).poll();
+        Node<NodeDataType> node = pipeNet.getNodeAt(nodePos);
+        for (EnumFacing facing : EnumFacing.VALUES) {
+            BlockPos offsetPos = nodePos.offset(facing);
+            Node<NodeDataType> offsetNode = pipeNet.getNodeAt(offsetPos);
+            if (offsetNode == null || !pipeNet.canNodesConnect(node, facing, offsetNode, pipeNet)) {
+                continue;
+            }
+            int ownerSearch = searchByNode.get(offsetPos);
+            if (ownerSearch == -1) {
+                this.searchByNode.put(offsetPos, search);
+                this.visitedNodes.get(search).put(offsetPos, offsetNode);
+                this.searchQueues.get(search).add(offsetPos);
+            } else {
+                //node was already visited by another search, so their start nodes are connected
+                uniteGroups(search, ownerSearch);
+            }
+        }
+    }
+
+    private int findGroup(int search) {
+        int group = search;
+        while (groupParents[group] != group) {
+            group = groupParents[group];
+        }
+        return group;
+    }
+
+    private void uniteGroups(int firstSearch, int secondSearch) {
+        int firstGroup = findGroup(firstSearch);
+        int secondGroup = findGroup(secondSearch);
+        if (firstGroup != secondGroup) {
+            this.groupParents[secondGroup] = firstGroup;
+            this.groupsCount--;
+        }
+    }
+}
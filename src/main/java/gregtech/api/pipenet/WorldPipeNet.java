@@ -1,14 +1,17 @@
 package gregtech.api.pipenet;
 
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraft.world.storage.WorldSavedData;
 import net.minecraftforge.common.util.Constants.NBT;
 
+import java.io.File;
 import java.util.*;
 
 public abstract class WorldPipeNet<NodeDataType, T extends PipeNet<NodeDataType>> extends WorldSavedData {
@@ -16,7 +19,14 @@ public abstract class WorldPipeNet<NodeDataType, T extends PipeNet<NodeDataType>
     private World world;
     protected boolean isFirstTick = true;
     protected List<T> pipeNets = new ArrayList<>();
-    protected Map<ChunkPos, List<T>> pipeNetsByChunk = new HashMap<>();
+    //keyed by ChunkPos#asLong
+    protected TLongObjectMap<List<T>> pipeNetsByChunk = new TLongObjectHashMap<>();
+    //net of every node of valid nets, keyed by BlockPos#toLong
+    private final TLongObjectMap<T> pipeNetByNode = new TLongObjectHashMap<>();
+    //nodes are saved into region files next to the data file instead of this data itself
+    private final PipeNetRegionStorage<NodeDataType> regionStorage = new PipeNetRegionStorage<>();
+    private int nextNetId = 1;
+    private boolean loadRegionsOnInit = false;
 
     public WorldPipeNet(String name) {
         super(name);
@@ -30,6 +40,13 @@ public abstract class WorldPipeNet<NodeDataType, T extends PipeNet<NodeDataType>
         if (isFirstTick) {
             this.world = world;
             this.isFirstTick = false;
+            File dataFile = world.getSaveHandler().getMapFileFromName(mapName);
+            if (dataFile != null) {
+                this.regionStorage.setRegionDirectory(new File(dataFile.getParentFile(), mapName));
+            }
+            if (loadRegionsOnInit) {
+                loadRegions();
+            }
             onWorldSet();
         }
     }
@@ -64,14 +81,19 @@ public abstract class WorldPipeNet<NodeDataType, T extends PipeNet<NodeDataType>
         }
     }
 
-    protected void addPipeNetToChunk(ChunkPos chunkPos, T pipeNet) {
-        this.pipeNetsByChunk.computeIfAbsent(chunkPos, any -> new ArrayList<>()).add(pipeNet);
+    protected void addPipeNetToChunk(long chunkKey, T pipeNet) {
+        List<T> list = this.pipeNetsByChunk.get(chunkKey);
+        if (list == null) {
+            list = new ArrayList<>();
+            this.pipeNetsByChunk.put(chunkKey, list);
+        }
+        list.add(pipeNet);
     }
 
-    protected void removePipeNetFromChunk(ChunkPos chunkPos, T pipeNet) {
-        List<T> list = this.pipeNetsByChunk.get(chunkPos);
+    protected void removePipeNetFromChunk(long chunkKey, T pipeNet) {
+        List<T> list = this.pipeNetsByChunk.get(chunkKey);
         if (list != null) list.remove(pipeNet);
-        if (list.isEmpty()) this.pipeNetsByChunk.remove(chunkPos);
+        if (list.isEmpty()) this.pipeNetsByChunk.remove(chunkKey);
     }
 
     public void removeNode(BlockPos nodePos) {
@@ -96,12 +118,25 @@ public abstract class WorldPipeNet<NodeDataType, T extends PipeNet<NodeDataType>
     }
 
     public T getNetFromPos(BlockPos blockPos) {
-        List<T> pipeNetsInChunk = pipeNetsByChunk.getOrDefault(new ChunkPos(blockPos), Collections.emptyList());
-        for (T pipeNet : pipeNetsInChunk) {
-            if (pipeNet.containsNode(blockPos))
-                return pipeNet;
+        return pipeNetByNode.get(blockPos.toLong());
+    }
+
+    /**
+     * Marks region containing the given node to be saved
+     */
+    void markNodeDirty(BlockPos nodePos) {
+        this.regionStorage.markNodeDirty(nodePos);
+        markDirty();
+    }
+
+    void addNodeToIndex(long nodeKey, T pipeNet) {
+        this.pipeNetByNode.put(nodeKey, pipeNet);
+    }
+
+    void removeNodeFromIndex(long nodeKey, T pipeNet) {
+        if (pipeNetByNode.get(nodeKey) == pipeNet) {
+            this.pipeNetByNode.remove(nodeKey);
         }
-        return null;
     }
 
     protected void addPipeNet(T pipeNet) {
@@ -109,39 +144,74 @@ public abstract class WorldPipeNet<NodeDataType, T extends PipeNet<NodeDataType>
     }
 
     protected void addPipeNetSilently(T pipeNet) {
+        if (pipeNet.netId == 0) {
+            pipeNet.netId = nextNetId++;
+        }
         this.pipeNets.add(pipeNet);
-        pipeNet.getContainedChunks().forEach(chunkPos -> addPipeNetToChunk(chunkPos, pipeNet));
+        pipeNet.getContainedChunks().forEach(chunkKey -> {
+            addPipeNetToChunk(chunkKey, pipeNet);
+            return true;
+        });
+        pipeNet.forEachNodeKey(nodeKey -> {
+            addNodeToIndex(nodeKey, pipeNet);
+            return true;
+        });
         pipeNet.isValid = true;
     }
 
     protected void removePipeNet(T pipeNet) {
         this.pipeNets.remove(pipeNet);
-        pipeNet.getContainedChunks().forEach(chunkPos -> removePipeNetFromChunk(chunkPos, pipeNet));
+        pipeNet.getContainedChunks().forEach(chunkKey -> {
+            removePipeNetFromChunk(chunkKey, pipeNet);
+            return true;
+        });
+        pipeNet.forEachNodeKey(nodeKey -> {
+            removeNodeFromIndex(nodeKey, pipeNet);
+            return true;
+        });
         pipeNet.isValid = false;
     }
 
     protected abstract T createNetInstance();
 
+    private void loadRegions() {
+        TIntObjectMap<Map<BlockPos, Node<NodeDataType>>> nodesByNet = regionStorage.loadRegions(createNetInstance());
+        nodesByNet.forEachEntry((netId, netNodes) -> {
+            T pipeNet = createNetInstance();
+            pipeNet.netId = netId;
+            netNodes.forEach(pipeNet::addNodeSilently);
+            pipeNet.onNodesLoaded();
+            addPipeNetSilently(pipeNet);
+            this.nextNetId = Math.max(nextNetId, netId + 1);
+            return true;
+        });
+        //regions were just loaded, so there is nothing to save
+        this.regionStorage.clearDirtyRegions();
+    }
+
     @Override
     public void readFromNBT(NBTTagCompound nbt) {
         this.pipeNets = new ArrayList<>();
-        NBTTagList allEnergyNets = nbt.getTagList("PipeNets", NBT.TAG_COMPOUND);
-        for (int i = 0; i < allEnergyNets.tagCount(); i++) {
-            NBTTagCompound pNetTag = allEnergyNets.getCompoundTagAt(i);
-            T pipeNet = createNetInstance();
-            pipeNet.deserializeNBT(pNetTag);
-            addPipeNetSilently(pipeNet);
+        if (nbt.hasKey("PipeNets", NBT.TAG_LIST)) {
+            //nets saved in legacy format, all loaded nodes are marked dirty and moved into regions on next save
+            NBTTagList allEnergyNets = nbt.getTagList("PipeNets", NBT.TAG_COMPOUND);
+            for (int i = 0; i < allEnergyNets.tagCount(); i++) {
+                NBTTagCompound pNetTag = allEnergyNets.getCompoundTagAt(i);
+                T pipeNet = createNetInstance();
+                pipeNet.deserializeNBT(pNetTag);
+                addPipeNetSilently(pipeNet);
+            }
+        } else {
+            //nodes are loaded from regions once directory of the world is known
+            this.nextNetId = Math.max(1, nbt.getInteger("NextNetId"));
+            this.loadRegionsOnInit = true;
         }
     }
 
     @Override
     public NBTTagCompound writeToNBT(NBTTagCompound compound) {
-        NBTTagList allPipeNets = new NBTTagList();
-        for (T pipeNet : pipeNets) {
-            NBTTagCompound pNetTag = pipeNet.serializeNBT();
-            allPipeNets.appendTag(pNetTag);
-        }
-        compound.setTag("PipeNets", allPipeNets);
+        this.regionStorage.saveDirtyRegions(pipeNetByNode);
+        compound.setInteger("NextNetId", nextNetId);
         return compound;
     }
 }
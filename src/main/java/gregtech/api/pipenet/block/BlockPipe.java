@@ -157,6 +157,7 @@ public abstract class BlockPipe<PipeType extends Enum<PipeType> & IPipeType<Node
             if (modeChanged) {
                 onActiveModeChange(worldIn, pos, isActiveNodeNow, false);
             }
+            pipeNet.onNeighbourUpdate(pos);
         }
     }
 
@@ -1,60 +1,69 @@
 package gregtech.api.pipenet.tickable;
 
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import gregtech.api.pipenet.PipeNet;
 import gregtech.api.pipenet.WorldPipeNet;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.chunk.Chunk;
-import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public abstract class TickableWorldPipeNet<NodeDataType, T extends PipeNet<NodeDataType> & ITickable> extends WorldPipeNet<NodeDataType, T> {
 
-    private Map<T, List<ChunkPos>> loadedChunksByPipeNet = new HashMap<>();
+    //loaded chunks of pipe nets, keyed by ChunkPos#asLong
+    private Map<T, TLongSet> loadedChunksByPipeNet = new HashMap<>();
     private List<T> tickingPipeNets = new ArrayList<>();
 
     public TickableWorldPipeNet(String name) {
         super(name);
     }
 
-    private boolean isChunkLoaded(ChunkPos chunkPos) {
+    private boolean isChunkLoaded(long chunkKey) {
         WorldServer worldServer = (WorldServer) getWorld();
-        return worldServer.getChunkProvider().chunkExists(chunkPos.x, chunkPos.z);
+        return worldServer.getChunkProvider().chunkExists((int) chunkKey, (int) (chunkKey >>> 32));
     }
 
     protected abstract int getUpdateRate();
 
     public void update() {
         if (getWorld().getTotalWorldTime() % getUpdateRate() == 0L) {
-            tickingPipeNets.forEach(ITickable::update);
+            //pipe nets can be removed or created while updating, for example when fluid destroys pipes
+            for (int i = 0; i < tickingPipeNets.size(); i++) {
+                tickingPipeNets.get(i).update();
+            }
         }
     }
 
     public void onChunkLoaded(Chunk chunk) {
-        ChunkPos chunkPos = chunk.getPos();
-        List<T> pipeNetsInThisChunk = this.pipeNetsByChunk.get(chunkPos);
+        long chunkKey = ChunkPos.asLong(chunk.x, chunk.z);
+        List<T> pipeNetsInThisChunk = this.pipeNetsByChunk.get(chunkKey);
+        if (pipeNetsInThisChunk == null) {
+            return;
+        }
         for (T pipeNet : pipeNetsInThisChunk) {
-            List<ChunkPos> loadedChunks = getOrCreateChunkListForPipeNet(pipeNet);
+            TLongSet loadedChunks = getOrCreateChunkSetForPipeNet(pipeNet);
             if (loadedChunks.isEmpty()) {
                 this.tickingPipeNets.add(pipeNet);
             }
-            loadedChunks.add(chunkPos);
+            loadedChunks.add(chunkKey);
         }
     }
 
     public void onChunkUnloaded(Chunk chunk) {
-        ChunkPos chunkPos = chunk.getPos();
-        List<T> pipeNetsInThisChunk = this.pipeNetsByChunk.get(chunkPos);
+        long chunkKey = ChunkPos.asLong(chunk.x, chunk.z);
+        List<T> pipeNetsInThisChunk = this.pipeNetsByChunk.get(chunkKey);
+        if (pipeNetsInThisChunk == null) {
+            return;
+        }
         for (T pipeNet : pipeNetsInThisChunk) {
-            List<ChunkPos> loadedChunks = this.loadedChunksByPipeNet.get(pipeNet);
-            if (loadedChunks != null && loadedChunks.contains(chunkPos)) {
-                loadedChunks.remove(chunkPos);
+            TLongSet loadedChunks = this.loadedChunksByPipeNet.get(pipeNet);
+            if (loadedChunks != null && loadedChunks.remove(chunkKey)) {
                 if (loadedChunks.isEmpty()) {
                     removeFromTicking(pipeNet);
                 }
@@ -65,30 +74,34 @@ public abstract class TickableWorldPipeNet<NodeDataType, T extends PipeNet<NodeD
     @Override
     protected void onWorldSet() {
         super.onWorldSet();
-        Map<T, List<ChunkPos>> pipeNetByLoadedChunks = pipeNets.stream()
-            .map(pipeNet -> Pair.of(pipeNet, getPipeNetLoadedChunks(pipeNet)))
-            .filter(pair -> !pair.getRight().isEmpty())
-            .collect(Collectors.toMap(Pair::getLeft, Pair::getRight));
-        if (!pipeNetByLoadedChunks.isEmpty()) {
-            this.tickingPipeNets.addAll(pipeNetByLoadedChunks.keySet());
-            this.loadedChunksByPipeNet.putAll(pipeNetByLoadedChunks);
+        for (T pipeNet : pipeNets) {
+            TLongSet loadedChunks = getPipeNetLoadedChunks(pipeNet);
+            if (!loadedChunks.isEmpty()) {
+                this.tickingPipeNets.add(pipeNet);
+                this.loadedChunksByPipeNet.put(pipeNet, loadedChunks);
+            }
         }
     }
 
     @Override
     protected void addPipeNet(T pipeNet) {
         super.addPipeNet(pipeNet);
-        List<ChunkPos> loadedChunks = getPipeNetLoadedChunks(pipeNet);
+        TLongSet loadedChunks = getPipeNetLoadedChunks(pipeNet);
         if (!loadedChunks.isEmpty()) {
             this.loadedChunksByPipeNet.put(pipeNet, loadedChunks);
             this.tickingPipeNets.add(pipeNet);
         }
     }
 
-    private List<ChunkPos> getPipeNetLoadedChunks(T pipeNet) {
-        return pipeNet.getContainedChunks().stream()
-            .filter(this::isChunkLoaded)
-            .collect(Collectors.toList());
+    private TLongSet getPipeNetLoadedChunks(T pipeNet) {
+        TLongSet loadedChunks = new TLongHashSet();
+        pipeNet.getContainedChunks().forEach(chunkKey -> {
+            if (isChunkLoaded(chunkKey)) {
+                loadedChunks.add(chunkKey);
+            }
+            return true;
+        });
+        return loadedChunks;
     }
 
     @Override
@@ -104,28 +117,27 @@ public abstract class TickableWorldPipeNet<NodeDataType, T extends PipeNet<NodeD
         this.tickingPipeNets.remove(pipeNet);
     }
 
-    private List<ChunkPos> getOrCreateChunkListForPipeNet(T pipeNet) {
-        return this.loadedChunksByPipeNet.computeIfAbsent(pipeNet, k -> new ArrayList<>());
+    private TLongSet getOrCreateChunkSetForPipeNet(T pipeNet) {
+        return this.loadedChunksByPipeNet.computeIfAbsent(pipeNet, k -> new TLongHashSet());
     }
 
     @Override
-    protected void addPipeNetToChunk(ChunkPos chunkPos, T pipeNet) {
-        super.addPipeNetToChunk(chunkPos, pipeNet);
-        if (isChunkLoaded(chunkPos)) {
-            List<ChunkPos> loadedChunks = getOrCreateChunkListForPipeNet(pipeNet);
+    protected void addPipeNetToChunk(long chunkKey, T pipeNet) {
+        super.addPipeNetToChunk(chunkKey, pipeNet);
+        if (isChunkLoaded(chunkKey)) {
+            TLongSet loadedChunks = getOrCreateChunkSetForPipeNet(pipeNet);
             if (loadedChunks.isEmpty()) {
                 this.tickingPipeNets.add(pipeNet);
             }
-            loadedChunks.add(chunkPos);
+            loadedChunks.add(chunkKey);
         }
     }
 
     @Override
-    protected void removePipeNetFromChunk(ChunkPos chunkPos, T pipeNet) {
-        super.removePipeNetFromChunk(chunkPos, pipeNet);
-        List<ChunkPos> loadedChunks = this.loadedChunksByPipeNet.get(pipeNet);
-        if (loadedChunks != null && loadedChunks.contains(chunkPos)) {
-            loadedChunks.remove(chunkPos);
+    protected void removePipeNetFromChunk(long chunkKey, T pipeNet) {
+        super.removePipeNetFromChunk(chunkKey, pipeNet);
+        TLongSet loadedChunks = this.loadedChunksByPipeNet.get(pipeNet);
+        if (loadedChunks != null && loadedChunks.remove(chunkKey)) {
             if (loadedChunks.isEmpty()) {
                 removeFromTicking(pipeNet);
             }
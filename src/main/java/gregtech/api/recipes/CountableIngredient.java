@@ -3,29 +3,31 @@ package gregtech.api.recipes;
 import gregtech.api.unification.material.type.Material;
 import gregtech.api.unification.ore.OrePrefix;
 import gregtech.api.unification.stack.UnificationEntry;
+import gregtech.api.util.RegistrationBuffer;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.crafting.Ingredient;
 import net.minecraftforge.oredict.OreIngredient;
 
+import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Objects;
 
 public class CountableIngredient {
 
     public static CountableIngredient from(ItemStack stack) {
-        return new CountableIngredient(Ingredient.fromStacks(stack), stack.getCount());
+        return new CountableIngredient(RegistrationBuffer.createIngredient(() -> Ingredient.fromStacks(stack)), stack.getCount());
     }
 
     public static CountableIngredient from(ItemStack stack, int amount) {
-        return new CountableIngredient(Ingredient.fromStacks(stack), amount);
+        return new CountableIngredient(RegistrationBuffer.createIngredient(() -> Ingredient.fromStacks(stack)), amount);
     }
 
     public static CountableIngredient from(String oredict) {
-        return new CountableIngredient(new OreIngredient(oredict), 1);
+        return from(oredict, 1);
     }
 
     public static CountableIngredient from(String oredict, int count) {
-        return new CountableIngredient(new OreIngredient(oredict), count);
+        return new CountableIngredient(RegistrationBuffer.createIngredient(() -> new OreIngredient(oredict)), count, oredict);
     }
 
     public static CountableIngredient from(OrePrefix prefix, Material material) {
@@ -33,15 +35,22 @@ public class CountableIngredient {
     }
 
     public static CountableIngredient from(OrePrefix prefix, Material material, int count) {
-        return new CountableIngredient(new OreIngredient(new UnificationEntry(prefix, material).toString()), count);
+        return from(new UnificationEntry(prefix, material).toString(), count);
     }
 
     private Ingredient ingredient;
     private int count;
+    @Nullable
+    private String oreDictName;
 
     public CountableIngredient(Ingredient ingredient, int count) {
+        this(ingredient, count, null);
+    }
+
+    private CountableIngredient(Ingredient ingredient, int count, @Nullable String oreDictName) {
         this.ingredient = ingredient;
         this.count = count;
+        this.oreDictName = oreDictName;
     }
 
     public Ingredient getIngredient() {
@@ -52,6 +61,15 @@ public class CountableIngredient {
         return count;
     }
 
+    /**
+     * @return name of ore dictionary entry backing this ingredient,
+     * or null if it wasn't created from ore dictionary name
+     */
+    @Nullable
+    public String getOreDictName() {
+        return oreDictName;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
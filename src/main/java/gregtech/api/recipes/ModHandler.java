@@ -13,6 +13,7 @@ import gregtech.api.unification.stack.MaterialStack;
 import gregtech.api.unification.stack.UnificationEntry;
 import gregtech.api.util.DummyContainer;
 import gregtech.api.util.GTLog;
+import gregtech.api.util.RegistrationBuffer;
 import gregtech.api.util.ShapedOreEnergyTransferRecipe;
 import gregtech.api.util.world.DummyWorld;
 import gregtech.common.MetaFluids;
@@ -140,6 +141,7 @@ public class ModHandler {
      * Just simple Furnace smelting
      */
     public static void addSmeltingRecipe(ItemStack input, ItemStack output) {
+        if (RegistrationBuffer.defer(() -> addSmeltingRecipe(input, output))) return;
         boolean skip = false;
         if (input.isEmpty()) {
             GTLog.logger.error("Input cannot be an empty ItemStack", new IllegalArgumentException());
@@ -193,9 +195,10 @@ public class ModHandler {
      * </ul>
      */
     public static void addMirroredShapedRecipe(String regName, ItemStack result, Object... recipe) {
-        result = OreDictUnifier.getUnificated(result);
+        if (RegistrationBuffer.defer(() -> addMirroredShapedRecipe(regName, result, recipe))) return;
+        ItemStack unificatedResult = OreDictUnifier.getUnificated(result);
         boolean skip = false;
-        if (result.isEmpty()) {
+        if (unificatedResult.isEmpty()) {
             GTLog.logger.error("Result cannot be an empty ItemStack. Recipe: {}", regName);
             GTLog.logger.error("Stacktrace:", new IllegalArgumentException());
             skip = true;
@@ -206,7 +209,7 @@ public class ModHandler {
             return;
         }
 
-        IRecipe shapedOreRecipe = new ShapedOreRecipe(new ResourceLocation(GTValues.MODID, "general"), result.copy(), finalizeShapedRecipeInput(recipe))
+        IRecipe shapedOreRecipe = new ShapedOreRecipe(new ResourceLocation(GTValues.MODID, "general"), unificatedResult.copy(), finalizeShapedRecipeInput(recipe))
             .setMirrored(true)
             .setRegistryName(regName);
         ForgeRegistries.RECIPES.register(shapedOreRecipe);
@@ -241,6 +244,7 @@ public class ModHandler {
      * </ul>
      */
     public static void addShapedRecipe(String regName, ItemStack result, Object... recipe) {
+        if (RegistrationBuffer.defer(() -> addShapedRecipe(regName, result, recipe))) return;
         boolean skip = false;
         if (result.isEmpty()) {
             GTLog.logger.error("Result cannot be an empty ItemStack. Recipe: {}", regName);
@@ -260,6 +264,7 @@ public class ModHandler {
     }
 
     public static void addShapedEnergyTransferRecipe(String regName, ItemStack result, Predicate<ItemStack> chargePredicate, boolean transferMaxCharge, Object... recipe) {
+        if (RegistrationBuffer.defer(() -> addShapedEnergyTransferRecipe(regName, result, chargePredicate, transferMaxCharge, recipe))) return;
         boolean skip = false;
         if (result.isEmpty()) {
             GTLog.logger.error("Result cannot be an empty ItemStack. Recipe: {}", regName);
@@ -354,6 +359,7 @@ public class ModHandler {
      * Add Shapeless Crafting Recipes
      */
     public static void addShapelessRecipe(String regName, ItemStack result, Object... recipe) {
+        if (RegistrationBuffer.defer(() -> addShapelessRecipe(regName, result, recipe))) return;
         boolean skip = false;
         if (result.isEmpty()) {
             GTLog.logger.error("Result cannot be an empty ItemStack. Recipe: {}", regName);
@@ -483,10 +489,13 @@ public class ModHandler {
             RecipeMap.setFoundInvalidRecipe(true);
             return false;
         }
-        for (ItemStack stack : FurnaceRecipes.instance().getSmeltingList().keySet()) {
-            if (ItemStack.areItemStacksEqual(input, stack)) {
-                FurnaceRecipes.instance().getSmeltingList().remove(stack);
-                return true;
+        //performed immediately to keep return value meaningful, so guard against parallel material handlers
+        synchronized (RegistrationBuffer.getRegistryLock()) {
+            for (ItemStack stack : FurnaceRecipes.instance().getSmeltingList().keySet()) {
+                if (ItemStack.areItemStacksEqual(input, stack)) {
+                    FurnaceRecipes.instance().getSmeltingList().remove(stack);
+                    return true;
+                }
             }
         }
         return false;
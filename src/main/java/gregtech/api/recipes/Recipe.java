@@ -59,6 +59,12 @@ public class Recipe {
 
     private final Map<String, Object> recipeProperties;
 
+    /**
+     * Amount of times every chanced output is rolled, greater than 1 for parallel recipe copies,
+     * so each parallel copy rolls its chanced outputs independently
+     */
+    private int chancedOutputRolls = 1;
+
     public Recipe(List<CountableIngredient> inputs, List<ItemStack> outputs, List<ChanceEntry> chancedOutputs,
                   List<FluidStack> fluidInputs, List<FluidStack> fluidOutputs,
                   Map<String, Object> recipeProperties, int duration, int EUt, boolean hidden) {
@@ -78,12 +84,26 @@ public class Recipe {
     }
 
     public final boolean matches(boolean consumeIfSuccessful, IItemHandlerModifiable inputs, IMultipleTankHandler fluidInputs) {
-        return matches(consumeIfSuccessful, GTUtility.itemHandlerToList(inputs), GTUtility.fluidHandlerToList(fluidInputs));
+        return matches(consumeIfSuccessful, new RecipeInputSnapshot().bind(inputs, fluidInputs));
     }
 
+    /**
+     * Creates new input snapshot on every call, code checking recipes repeatedly
+     * should keep its own snapshot and use {@link #matches(boolean, RecipeInputSnapshot)}
+     */
     public boolean matches(boolean consumeIfSuccessful, List<ItemStack> inputs, List<FluidStack> fluidInputs) {
-        int[] fluidAmountInTank = new int[fluidInputs.size()];
-        int[] itemAmountInSlot = new int[inputs.size()];
+        return matches(consumeIfSuccessful, new RecipeInputSnapshot(inputs, fluidInputs));
+    }
+
+    /**
+     * Checks if this recipe matches given inputs using snapshot scratch buffers,
+     * so checking recipe doesn't allocate anything
+     */
+    public boolean matches(boolean consumeIfSuccessful, RecipeInputSnapshot snapshot) {
+        List<ItemStack> inputs = snapshot.getItemInputs();
+        List<FluidStack> fluidInputs = snapshot.getFluidInputs();
+        int[] fluidAmountInTank = snapshot.getFluidAmountInTank();
+        int[] itemAmountInSlot = snapshot.getItemAmountInSlot();
 
         for (int i = 0; i < fluidAmountInTank.length; i++) {
             FluidStack fluidInTank = fluidInputs.get(i);
@@ -94,14 +114,15 @@ public class Recipe {
             itemAmountInSlot[i] = itemInSlot.isEmpty() ? 0 : itemInSlot.getCount();
         }
 
-        for (FluidStack fluid : this.fluidInputs) {
+        for (int j = 0; j < this.fluidInputs.size(); j++) {
+            FluidStack fluid = this.fluidInputs.get(j);
             int fluidAmount = fluid.amount;
             boolean isNotConsumed = false;
             if (fluidAmount == 0) {
                 fluidAmount = 1;
                 isNotConsumed = true;
             }
-            for (int i = 0; i < fluidInputs.size(); i++) {
+            for (int i = 0; i < fluidAmountInTank.length; i++) {
                 FluidStack tankFluid = fluidInputs.get(i);
                 if (tankFluid == null || !tankFluid.isFluidEqual(fluid))
                     continue;
@@ -114,14 +135,15 @@ public class Recipe {
                 return false;
         }
 
-        for (CountableIngredient ingredient : this.inputs) {
+        for (int j = 0; j < this.inputs.size(); j++) {
+            CountableIngredient ingredient = this.inputs.get(j);
             int ingredientAmount = ingredient.getCount();
             boolean isNotConsumed = false;
             if (ingredientAmount == 0) {
                 ingredientAmount = 1;
                 isNotConsumed = true;
             }
-            for (int i = 0; i < inputs.size(); i++) {
+            for (int i = 0; i < itemAmountInSlot.length; i++) {
                 ItemStack inputStack = inputs.get(i);
                 if (inputStack.isEmpty() || !ingredient.getIngredient().apply(inputStack))
                     continue;
@@ -135,27 +157,65 @@ public class Recipe {
         }
 
         if (consumeIfSuccessful) {
+            //consumed stacks are always set back into inputs, so backing handlers notify about the change
             for (int i = 0; i < fluidAmountInTank.length; i++) {
                 FluidStack fluidStack = fluidInputs.get(i);
                 int fluidAmount = fluidAmountInTank[i];
                 if (fluidStack == null || fluidStack.amount == fluidAmount)
                     continue;
                 fluidStack.amount = fluidAmount;
-                if (fluidStack.amount == 0)
-                    fluidInputs.set(i, null);
+                fluidInputs.set(i, fluidAmount == 0 ? null : fluidStack);
             }
             for (int i = 0; i < itemAmountInSlot.length; i++) {
                 ItemStack itemInSlot = inputs.get(i);
                 int itemAmount = itemAmountInSlot[i];
                 if (itemInSlot.isEmpty() || itemInSlot.getCount() == itemAmount)
                     continue;
-                itemInSlot.setCount(itemAmountInSlot[i]);
+                itemInSlot.setCount(itemAmount);
+                inputs.set(i, itemAmount == 0 ? ItemStack.EMPTY : itemInSlot);
             }
         }
 
         return true;
     }
 
+    /**
+     * Creates copy of this recipe which performs given amount of its operations at once.
+     * Inputs, outputs and energy usage are multiplied, while duration stays the same.
+     * Non-consumable inputs are not multiplied. Chanced outputs are kept as is, but are rolled
+     * separately for every parallel copy, so each of them is rolled {@code multiplier} times
+     */
+    public Recipe copyWithMultiplier(int multiplier) {
+        List<CountableIngredient> newInputs = new ArrayList<>(inputs.size());
+        for (CountableIngredient input : inputs) {
+            newInputs.add(new CountableIngredient(input.getIngredient(), input.getCount() * multiplier));
+        }
+        List<ItemStack> newOutputs = new ArrayList<>(outputs.size());
+        for (ItemStack output : outputs) {
+            newOutputs.add(copyWithMultiplier(output, multiplier));
+        }
+        List<FluidStack> newFluidInputs = new ArrayList<>(fluidInputs.size());
+        for (FluidStack fluidInput : fluidInputs) {
+            newFluidInputs.add(GTUtility.copyAmount(fluidInput.amount * multiplier, fluidInput));
+        }
+        List<FluidStack> newFluidOutputs = new ArrayList<>(fluidOutputs.size());
+        for (FluidStack fluidOutput : fluidOutputs) {
+            newFluidOutputs.add(GTUtility.copyAmount(fluidOutput.amount * multiplier, fluidOutput));
+        }
+        //chanced outputs are kept as is and rolled once per parallel copy instead
+        Recipe multipliedRecipe = new Recipe(newInputs, newOutputs, chancedOutputs, newFluidInputs, newFluidOutputs,
+            recipeProperties, duration, EUt * multiplier, hidden);
+        multipliedRecipe.chancedOutputRolls = chancedOutputRolls * multiplier;
+        return multipliedRecipe;
+    }
+
+    //unlike GTUtility#copyAmount, doesn't limit stack size, oversized stacks are inserted into multiple slots
+    private static ItemStack copyWithMultiplier(ItemStack itemStack, int multiplier) {
+        ItemStack resultStack = itemStack.copy();
+        resultStack.setCount(itemStack.getCount() * multiplier);
+        return resultStack;
+    }
+
     ///////////////////
     //    Getters    //
     ///////////////////
@@ -177,8 +237,14 @@ public class Recipe {
         }
         for (ChanceEntry chancedOutput : chancedOutputsList) {
             int outputChance = chancedOutput.getChance() + (chancedOutput.getBoostPerTier() * tier);
-            if (random.nextInt(Recipe.getMaxChancedValue()) <= outputChance) {
-                outputs.add(chancedOutput.getItemStack().copy());
+            int successfulRolls = 0;
+            for (int i = 0; i < chancedOutputRolls; i++) {
+                if (random.nextInt(Recipe.getMaxChancedValue()) <= outputChance) {
+                    successfulRolls++;
+                }
+            }
+            if (successfulRolls > 0) {
+                outputs.add(copyWithMultiplier(chancedOutput.getItemStack(), successfulRolls));
             }
         }
         return outputs;
@@ -187,7 +253,10 @@ public class Recipe {
     public List<ItemStack> getAllItemOutputs(int maxOutputSlots) {
         List<ItemStack> outputs = new ArrayList<>();
         outputs.addAll(GTUtility.copyStackList(getOutputs()));
-        outputs.addAll(getChancedOutputs().stream().map(ChanceEntry::getItemStack).collect(Collectors.toList()));
+        //assume every roll of chanced outputs succeeds
+        outputs.addAll(getChancedOutputs().stream()
+            .map(chanceEntry -> copyWithMultiplier(chanceEntry.getItemStack(), chancedOutputRolls))
+            .collect(Collectors.toList()));
         if (outputs.size() > maxOutputSlots) {
             outputs = outputs.subList(0, maxOutputSlots);
         }
@@ -241,6 +241,7 @@ public abstract class RecipeBuilder<R extends RecipeBuilder<R>> {
     }
 
     public void buildAndRegister() {
+        if (RecipeMapSnapshot.isRestored()) return;
         ValidationResult<Recipe> validationResult = build();
         recipeMap.addRecipe(validationResult);
     }
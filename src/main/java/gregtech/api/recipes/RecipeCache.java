@@ -0,0 +1,162 @@
+package gregtech.api.recipes;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gregtech.common.ConfigHolder;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraftforge.fluids.FluidStack;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Bounded LRU cache of recipe search results shared by all machines using the same {@link RecipeMap}.
+ * <p>
+ * Results are keyed by fingerprint of the inputs, which doesn't depend on the order of input slots,
+ * so identical machines processing identical inputs only search for the recipe once.
+ * Both found recipes and failed searches are cached. Cache should be invalidated
+ * whenever recipe map contents change.
+ */
+class RecipeCache {
+
+    private final TLongObjectMap<CacheEntry> entries = new TLongObjectHashMap<>();
+    //most recently used entry is head, least recently used is tail
+    private CacheEntry head;
+    private CacheEntry tail;
+
+    /**
+     * @return cache entry for given fingerprint, or null if search result is not cached
+     */
+    @Nullable
+    public synchronized CacheEntry get(long fingerprint) {
+        CacheEntry entry = entries.get(fingerprint);
+        if (entry != null && entry != head) {
+            unlink(entry);
+            linkFirst(entry);
+        }
+        return entry;
+    }
+
+    public synchronized void put(long fingerprint, @Nullable Recipe recipe) {
+        int maxSize = ConfigHolder.recipeCacheSize;
+        if (maxSize <= 0) return;
+        CacheEntry entry = entries.get(fingerprint);
+        if (entry != null) {
+            entry.recipe = recipe;
+            unlink(entry);
+        } else {
+            entry = new CacheEntry(fingerprint, recipe);
+            entries.put(fingerprint, entry);
+        }
+        linkFirst(entry);
+        while (entries.size() > maxSize) {
+            CacheEntry eldestEntry = tail;
+            unlink(eldestEntry);
+            entries.remove(eldestEntry.fingerprint);
+        }
+    }
+
+    public synchronized void invalidate() {
+        if (!entries.isEmpty()) {
+            entries.clear();
+            this.head = null;
+            this.tail = null;
+        }
+    }
+
+    private void linkFirst(CacheEntry entry) {
+        entry.previous = null;
+        entry.next = head;
+        if (head != null) {
+            head.previous = entry;
+        }
+        this.head = entry;
+        if (tail == null) {
+            this.tail = entry;
+        }
+    }
+
+    private void unlink(CacheEntry entry) {
+        if (entry.previous != null) {
+            entry.previous.next = entry.next;
+        } else {
+            this.head = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.previous = entry.previous;
+        } else {
+            this.tail = entry.previous;
+        }
+        entry.previous = null;
+        entry.next = null;
+    }
+
+    /**
+     * Computes fingerprint of the inputs and search parameters. Empty slots and order
+     * of the slots don't affect fingerprint, while item metadata, amount and tag do.
+     * Tags are hashed by identity instead of contents, since hashing contents walks whole tag.
+     * Equal tags in different stacks only produce separate cache entries, never wrong results
+     */
+    public static long computeFingerprint(RecipeInputSnapshot inputs, long voltage, int outputFluidTankCapacity) {
+        long itemsHash = 0L;
+        List<ItemStack> itemInputs = inputs.getItemInputs();
+        for (int i = 0; i < itemInputs.size(); i++) {
+            ItemStack itemStack = itemInputs.get(i);
+            if (itemStack.isEmpty()) continue;
+            NBTTagCompound tagCompound = itemStack.getTagCompound();
+            long stackHash = System.identityHashCode(itemStack.getItem());
+            stackHash = stackHash * 31L + itemStack.getMetadata();
+            stackHash = stackHash * 31L + itemStack.getCount();
+            stackHash = stackHash * 31L + System.identityHashCode(tagCompound);
+            itemsHash += mix(stackHash);
+        }
+        long fluidsHash = 0L;
+        List<FluidStack> fluidInputs = inputs.getFluidInputs();
+        for (int i = 0; i < fluidInputs.size(); i++) {
+            FluidStack fluidStack = fluidInputs.get(i);
+            if (fluidStack == null) continue;
+            long stackHash = fluidStack.getFluid().getName().hashCode();
+            stackHash = stackHash * 31L + fluidStack.amount;
+            stackHash = stackHash * 31L + System.identityHashCode(fluidStack.tag);
+            fluidsHash += mix(stackHash);
+        }
+        long resultHash = mix(itemsHash);
+        resultHash = resultHash * 31L + mix(fluidsHash ^ 0x9E3779B97F4A7C15L);
+        resultHash = resultHash * 31L + voltage;
+        resultHash = resultHash * 31L + outputFluidTankCapacity;
+        return mix(resultHash);
+    }
+
+    //finalization step of MurmurHash3, spreads bits of the hash evenly
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    static final class CacheEntry {
+
+        private final long fingerprint;
+        @Nullable
+        private Recipe recipe;
+        private CacheEntry previous;
+        private CacheEntry next;
+
+        private CacheEntry(long fingerprint, @Nullable Recipe recipe) {
+            this.fingerprint = fingerprint;
+            this.recipe = recipe;
+        }
+
+        /**
+         * @return cached search result, or null if search didn't find anything
+         */
+        @Nullable
+        public Recipe getRecipe() {
+            return recipe;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package gregtech.api.recipes;
+
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import gregtech.api.recipes.ingredients.IntCircuitIngredient;
+import gregtech.api.recipes.ingredients.NBTIngredient;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.Ingredient;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.oredict.OreDictionary;
+
+import java.util.*;
+
+/**
+ * Ingredient index used by {@link RecipeMap} to narrow down candidate recipes
+ * before running full {@link Recipe#matches} check on them.
+ * <p>
+ * Every recipe is registered only under keys of one of its inputs (item and metadata,
+ * ore dictionary entry or fluid), because that input should be present for recipe to match at all.
+ * Lookup probes only keys of actual input stacks, so its cost depends on amount of distinct
+ * inputs and not on amount of recipes in the map.
+ */
+class RecipeInputIndex {
+
+    private final Map<Item, TIntObjectMap<List<Recipe>>> itemIndex = new HashMap<>();
+    private final TIntObjectMap<List<Recipe>> oreDictIndex = new TIntObjectHashMap<>();
+    private final Map<FluidKey, List<Recipe>> fluidIndex = new HashMap<>();
+    //recipes which inputs cannot be indexed, they are always considered as candidates
+    private final List<Recipe> unindexedRecipes = new ArrayList<>();
+
+    private final Map<Recipe, List<List<Recipe>>> recipeBuckets = new HashMap<>();
+    private final TObjectIntMap<Recipe> recipeOrdinals = new TObjectIntHashMap<>();
+    private int nextOrdinal = 0;
+
+    public void addRecipe(Recipe recipe) {
+        List<List<Recipe>> buckets = selectBuckets(recipe);
+        for (List<Recipe> bucket : buckets) {
+            bucket.add(recipe);
+        }
+        recipeBuckets.put(recipe, buckets);
+        recipeOrdinals.put(recipe, nextOrdinal++);
+    }
+
+    public void removeRecipe(Recipe recipe) {
+        List<List<Recipe>> buckets = recipeBuckets.remove(recipe);
+        if (buckets == null) return;
+        for (List<Recipe> bucket : buckets) {
+            bucket.removeIf(bucketRecipe -> bucketRecipe == recipe);
+        }
+        recipeOrdinals.remove(recipe);
+    }
+
+    /**
+     * Collects recipes which can possibly match given inputs, in order they were added to the index.
+     * Recipes not returned by this method are guaranteed to not match given inputs.
+     * Returned list is either one of the index buckets or snapshot scratch list, and shouldn't be modified
+     */
+    public List<Recipe> findCandidates(RecipeInputSnapshot snapshot) {
+        List<ItemStack> inputs = snapshot.getItemInputs();
+        List<FluidStack> fluidInputs = snapshot.getFluidInputs();
+        List<List<Recipe>> buckets = snapshot.candidateBuckets;
+        buckets.clear();
+        addBucket(buckets, unindexedRecipes);
+        for (int i = 0; i < inputs.size(); i++) {
+            ItemStack itemStack = inputs.get(i);
+            if (itemStack.isEmpty()) continue;
+            TIntObjectMap<List<Recipe>> metadataMap = itemIndex.get(itemStack.getItem());
+            if (metadataMap != null) {
+                addBucket(buckets, metadataMap.get(itemStack.getMetadata()));
+                addBucket(buckets, metadataMap.get(OreDictionary.WILDCARD_VALUE));
+            }
+            if (!oreDictIndex.isEmpty()) {
+                for (int oreId : snapshot.getOreIds(i)) {
+                    addBucket(buckets, oreDictIndex.get(oreId));
+                }
+            }
+        }
+        for (int i = 0; i < fluidInputs.size(); i++) {
+            if (fluidInputs.get(i) == null) continue;
+            addBucket(buckets, fluidIndex.get(snapshot.getFluidKey(i)));
+        }
+        return mergeBuckets(snapshot);
+    }
+
+    private static void addBucket(List<List<Recipe>> buckets, List<Recipe> bucket) {
+        if (bucket == null || bucket.isEmpty()) return;
+        for (int i = 0; i < buckets.size(); i++) {
+            if (buckets.get(i) == bucket) return;
+        }
+        buckets.add(bucket);
+    }
+
+    /**
+     * Merges buckets collected in the snapshot into single list sorted by ordinal.
+     * Buckets are already sorted by ordinal, so they are merged without sorting and allocations
+     */
+    private List<Recipe> mergeBuckets(RecipeInputSnapshot snapshot) {
+        List<List<Recipe>> buckets = snapshot.candidateBuckets;
+        if (buckets.isEmpty()) {
+            return Collections.emptyList();
+        } else if (buckets.size() == 1) {
+            return buckets.get(0);
+        }
+        if (snapshot.bucketCursors.length < buckets.size()) {
+            snapshot.bucketCursors = new int[buckets.size()];
+        }
+        int[] cursors = snapshot.bucketCursors;
+        Arrays.fill(cursors, 0, buckets.size(), 0);
+        List<Recipe> candidates = snapshot.candidates;
+        candidates.clear();
+        while (true) {
+            Recipe nextRecipe = null;
+            int nextOrdinal = Integer.MAX_VALUE;
+            for (int i = 0; i < buckets.size(); i++) {
+                List<Recipe> bucket = buckets.get(i);
+                if (cursors[i] >= bucket.size()) continue;
+                Recipe recipe = bucket.get(cursors[i]);
+                int ordinal = recipeOrdinals.get(recipe);
+                if (ordinal < nextOrdinal) {
+                    nextRecipe = recipe;
+                    nextOrdinal = ordinal;
+                }
+            }
+            if (nextRecipe == null) break;
+            candidates.add(nextRecipe);
+            //recipe can be contained in multiple buckets, so skip it in all of them
+            for (int i = 0; i < buckets.size(); i++) {
+                List<Recipe> bucket = buckets.get(i);
+                if (cursors[i] < bucket.size() && bucket.get(cursors[i]) == nextRecipe) {
+                    cursors[i]++;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Selects buckets recipe should be added to. Recipe is added only to buckets of
+     * single input, which is chosen so candidate lists are kept as small as possible
+     */
+    private List<List<Recipe>> selectBuckets(Recipe recipe) {
+        List<Object> bestKeys = null;
+        int bestKeysSize = Integer.MAX_VALUE;
+        for (CountableIngredient ingredient : recipe.getInputs()) {
+            List<Object> ingredientKeys = getIngredientKeys(ingredient);
+            if (ingredientKeys == null) continue;
+            int bucketsSize = getBucketsSize(ingredientKeys);
+            if (bucketsSize < bestKeysSize) {
+                bestKeys = ingredientKeys;
+                bestKeysSize = bucketsSize;
+            }
+        }
+        for (FluidStack fluidStack : recipe.getFluidInputs()) {
+            List<Object> fluidKeys = Collections.singletonList(new FluidKey(fluidStack));
+            int bucketsSize = getBucketsSize(fluidKeys);
+            if (bucketsSize < bestKeysSize) {
+                bestKeys = fluidKeys;
+                bestKeysSize = bucketsSize;
+            }
+        }
+        if (bestKeys == null) {
+            return Collections.singletonList(unindexedRecipes);
+        }
+        List<List<Recipe>> buckets = new ArrayList<>(bestKeys.size());
+        for (Object key : bestKeys) {
+            buckets.add(getBucket(key, true));
+        }
+        return buckets;
+    }
+
+    private int getBucketsSize(List<Object> keys) {
+        int totalSize = 0;
+        for (Object key : keys) {
+            List<Recipe> bucket = getBucket(key, false);
+            totalSize += bucket == null ? 0 : bucket.size();
+        }
+        return totalSize;
+    }
+
+    private List<Recipe> getBucket(Object key, boolean create) {
+        if (key instanceof ItemKey) {
+            ItemKey itemKey = (ItemKey) key;
+            TIntObjectMap<List<Recipe>> metadataMap = create ?
+                itemIndex.computeIfAbsent(itemKey.item, k -> new TIntObjectHashMap<>()) :
+                itemIndex.get(itemKey.item);
+            if (metadataMap == null) return null;
+            List<Recipe> bucket = metadataMap.get(itemKey.metadata);
+            if (bucket == null && create) {
+                bucket = new ArrayList<>();
+                metadataMap.put(itemKey.metadata, bucket);
+            }
+            return bucket;
+        } else if (key instanceof Integer) {
+            int oreId = (Integer) key;
+            List<Recipe> bucket = oreDictIndex.get(oreId);
+            if (bucket == null && create) {
+                bucket = new ArrayList<>();
+                oreDictIndex.put(oreId, bucket);
+            }
+            return bucket;
+        } else {
+            return create ? fluidIndex.computeIfAbsent((FluidKey) key, k -> new ArrayList<>()) : fluidIndex.get(key);
+        }
+    }
+
+    /**
+     * @return index keys any of which input stack should have to match given ingredient,
+     * or null if ingredient cannot be indexed
+     */
+    private static List<Object> getIngredientKeys(CountableIngredient countableIngredient) {
+        if (countableIngredient.getOreDictName() != null) {
+            return Collections.singletonList(OreDictionary.getOreID(countableIngredient.getOreDictName()));
+        }
+        Ingredient ingredient = countableIngredient.getIngredient();
+        //only these ingredients are guaranteed to not match anything outside of their matching stacks
+        if (ingredient.getClass() != Ingredient.class &&
+            !(ingredient instanceof NBTIngredient) &&
+            !(ingredient instanceof IntCircuitIngredient)) {
+            return null;
+        }
+        ItemStack[] matchingStacks = ingredient.getMatchingStacks();
+        if (matchingStacks.length == 0) {
+            return null;
+        }
+        List<Object> itemKeys = new ArrayList<>(matchingStacks.length);
+        for (ItemStack itemStack : matchingStacks) {
+            ItemKey itemKey = new ItemKey(itemStack.getItem(), itemStack.getMetadata());
+            if (!itemKeys.contains(itemKey)) {
+                itemKeys.add(itemKey);
+            }
+        }
+        return itemKeys;
+    }
+
+    private static final class ItemKey {
+
+        private final Item item;
+        private final int metadata;
+
+        private ItemKey(Item item, int metadata) {
+            this.item = item;
+            this.metadata = metadata;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ItemKey)) return false;
+            ItemKey itemKey = (ItemKey) o;
+            return item == itemKey.item && metadata == itemKey.metadata;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(item, metadata);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package gregtech.api.recipes;
+
+import gregtech.api.capability.IMultipleTankHandler;
+import gregtech.api.util.GTUtility;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.items.IItemHandlerModifiable;
+import net.minecraftforge.oredict.OreDictionary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reusable view of recipe inputs together with scratch buffers used by recipe search.
+ * <p>
+ * Recipe logic keeps one instance and binds it to its input inventories, so
+ * {@link RecipeMap#findRecipe(long, RecipeInputSnapshot, int)} and {@link Recipe#matches(boolean, RecipeInputSnapshot)}
+ * don't allocate anything when run against unchanged inputs.
+ * Modifications of input lists are reflected on backing handlers and vice versa.
+ * <p>
+ * Instances are not thread-safe and shouldn't be shared between recipe logics.
+ */
+public class RecipeInputSnapshot {
+
+    private IItemHandlerModifiable itemHandler;
+    private IMultipleTankHandler fluidHandler;
+    private List<ItemStack> itemInputs = Collections.emptyList();
+    private List<FluidStack> fluidInputs = Collections.emptyList();
+
+    private int[] itemAmountInSlot = new int[0];
+    private int[] fluidAmountInTank = new int[0];
+
+    //caches of index keys of the input stacks, refreshed only when stack in slot changes
+    private Item[] oreIdsItems = new Item[0];
+    private int[] oreIdsMetadata = new int[0];
+    private int[][] oreIds = new int[0][];
+    private FluidKey[] fluidKeys = new FluidKey[0];
+
+    final List<List<Recipe>> candidateBuckets = new ArrayList<>();
+    final List<Recipe> candidates = new ArrayList<>();
+    int[] bucketCursors = new int[0];
+
+    public RecipeInputSnapshot() {
+    }
+
+    public RecipeInputSnapshot(List<ItemStack> itemInputs, List<FluidStack> fluidInputs) {
+        setInputs(itemInputs, fluidInputs);
+    }
+
+    /**
+     * Binds this snapshot to the given handlers. Views over handlers are recreated
+     * only when handler instances differ from previously bound ones
+     *
+     * @return this snapshot
+     */
+    public RecipeInputSnapshot bind(IItemHandlerModifiable itemHandler, IMultipleTankHandler fluidHandler) {
+        if (this.itemHandler != itemHandler) {
+            this.itemHandler = itemHandler;
+            this.itemInputs = GTUtility.itemHandlerToList(itemHandler);
+        }
+        if (this.fluidHandler != fluidHandler) {
+            this.fluidHandler = fluidHandler;
+            this.fluidInputs = GTUtility.fluidHandlerToList(fluidHandler);
+        }
+        ensureCapacity();
+        return this;
+    }
+
+    public RecipeInputSnapshot setInputs(List<ItemStack> itemInputs, List<FluidStack> fluidInputs) {
+        this.itemHandler = null;
+        this.fluidHandler = null;
+        this.itemInputs = itemInputs;
+        this.fluidInputs = fluidInputs;
+        ensureCapacity();
+        return this;
+    }
+
+    public List<ItemStack> getItemInputs() {
+        return itemInputs;
+    }
+
+    public List<FluidStack> getFluidInputs() {
+        return fluidInputs;
+    }
+
+    public int getNonEmptyItemInputs() {
+        int amount = 0;
+        for (int i = 0; i < itemInputs.size(); i++) {
+            ItemStack itemStack = itemInputs.get(i);
+            if (itemStack != null && !itemStack.isEmpty()) amount++;
+        }
+        return amount;
+    }
+
+    public int getNonEmptyFluidInputs() {
+        int amount = 0;
+        for (int i = 0; i < fluidInputs.size(); i++) {
+            if (fluidInputs.get(i) != null) amount++;
+        }
+        return amount;
+    }
+
+    int[] getItemAmountInSlot() {
+        return itemAmountInSlot;
+    }
+
+    int[] getFluidAmountInTank() {
+        return fluidAmountInTank;
+    }
+
+    /**
+     * @return ore dictionary ids of the stack in given input slot, cached until slot contents change
+     */
+    int[] getOreIds(int slot) {
+        ItemStack itemStack = itemInputs.get(slot);
+        if (oreIds[slot] == null || oreIdsItems[slot] != itemStack.getItem() ||
+            oreIdsMetadata[slot] != itemStack.getMetadata()) {
+            this.oreIdsItems[slot] = itemStack.getItem();
+            this.oreIdsMetadata[slot] = itemStack.getMetadata();
+            this.oreIds[slot] = OreDictionary.getOreIDs(itemStack);
+        }
+        return oreIds[slot];
+    }
+
+    /**
+     * @return index key of the fluid in given input tank, cached until tank fluid changes
+     */
+    FluidKey getFluidKey(int tank) {
+        FluidStack fluidStack = fluidInputs.get(tank);
+        FluidKey fluidKey = fluidKeys[tank];
+        if (fluidKey == null || !fluidKey.fluid.equals(fluidStack.getFluid().getName()) ||
+            !Objects.equals(fluidKey.tag, fluidStack.tag)) {
+            fluidKey = new FluidKey(fluidStack);
+            this.fluidKeys[tank] = fluidKey;
+        }
+        return fluidKey;
+    }
+
+    private void ensureCapacity() {
+        int slots = itemInputs.size();
+        if (itemAmountInSlot.length != slots) {
+            this.itemAmountInSlot = new int[slots];
+            this.oreIdsItems = new Item[slots];
+            this.oreIdsMetadata = new int[slots];
+            this.oreIds = new int[slots][];
+        }
+        int tanks = fluidInputs.size();
+        if (fluidAmountInTank.length != tanks) {
+            this.fluidAmountInTank = new int[tanks];
+            this.fluidKeys = new FluidKey[tanks];
+        }
+    }
+}
@@ -24,6 +24,7 @@ import gregtech.api.unification.ore.OrePrefix;
 import gregtech.api.util.EnumValidationResult;
 import gregtech.api.util.GTLog;
 import gregtech.api.util.GTUtility;
+import gregtech.api.util.RegistrationBuffer;
 import gregtech.api.util.ValidationResult;
 import net.minecraft.client.resources.I18n;
 import net.minecraft.item.ItemStack;
@@ -60,8 +61,10 @@ public class RecipeMap<R extends RecipeBuilder<R>> {
     protected TextureArea progressBarTexture;
     protected MoveType moveType;
 
-    private final Map<FluidKey, Collection<Recipe>> recipeFluidMap = new HashMap<>();
+    private final Map<FluidKey, List<Recipe>> recipeFluidMap = new HashMap<>();
     private final Collection<Recipe> recipeList = new ArrayList<>();
+    private final RecipeInputIndex recipeInputIndex = new RecipeInputIndex();
+    private final RecipeCache recipeCache = new RecipeCache();
 
     public RecipeMap(String unlocalizedName,
                      int minInputs, int maxInputs, int minOutputs, int maxOutputs,
@@ -103,7 +106,7 @@ public class RecipeMap<R extends RecipeBuilder<R>> {
         return foundInvalidRecipe;
     }
 
-    public static void setFoundInvalidRecipe(boolean foundInvalidRecipe) {
+    public static synchronized void setFoundInvalidRecipe(boolean foundInvalidRecipe) {
         RecipeMap.foundInvalidRecipe |= foundInvalidRecipe;
         OrePrefix currentOrePrefix = OrePrefix.getCurrentProcessingPrefix();
         if (currentOrePrefix != null) {
@@ -141,32 +144,65 @@ public class RecipeMap<R extends RecipeBuilder<R>> {
     }
 
     public Collection<Recipe> getRecipesForFluid(FluidStack fluid) {
-        return recipeFluidMap.getOrDefault(new FluidKey(fluid), Collections.emptySet());
+        return recipeFluidMap.getOrDefault(new FluidKey(fluid), Collections.emptyList());
     }
 
     private static boolean foundInvalidRecipe = false;
 
     //internal usage only, use buildAndRegister()
     public void addRecipe(ValidationResult<Recipe> validationResult) {
-        validationResult = postValidateRecipe(validationResult);
-        switch (validationResult.getType()) {
+        if (RegistrationBuffer.defer(() -> addRecipe(validationResult))) return;
+        //restored snapshot already contains this recipe
+        if (RecipeMapSnapshot.isRestored()) return;
+        ValidationResult<Recipe> postValidationResult = postValidateRecipe(validationResult);
+        switch (postValidationResult.getType()) {
             case SKIP:
                 return;
             case INVALID:
                 setFoundInvalidRecipe(true);
                 return;
         }
-        Recipe recipe = validationResult.getResult();
+        registerRecipe(postValidationResult.getResult());
+    }
+
+    /**
+     * Replaces contents of this map with recipes restored from {@link RecipeMapSnapshot}
+     */
+    void restoreRecipes(List<Recipe> recipes) {
+        for (Recipe recipe : new ArrayList<>(recipeList)) {
+            removeRecipeInternal(recipe);
+        }
+        for (Recipe recipe : recipes) {
+            registerRecipe(recipe);
+        }
+    }
+
+    private void registerRecipe(Recipe recipe) {
         recipeList.add(recipe);
+        recipeInputIndex.addRecipe(recipe);
+        recipeCache.invalidate();
+        onRecipeListChanged();
 
         for (FluidStack fluid : recipe.getFluidInputs()) {
-            recipeFluidMap.computeIfAbsent(new FluidKey(fluid), k -> new HashSet<>(1)).add(recipe);
+            List<Recipe> fluidRecipes = recipeFluidMap.computeIfAbsent(new FluidKey(fluid), k -> new ArrayList<>(1));
+            if (!fluidRecipes.contains(recipe)) {
+                fluidRecipes.add(recipe);
+            }
         }
     }
 
     public boolean removeRecipe(Recipe recipe) {
+        //restored snapshot already doesn't contain this recipe
+        if (RecipeMapSnapshot.isRestored()) return false;
+        return removeRecipeInternal(recipe);
+    }
+
+    private boolean removeRecipeInternal(Recipe recipe) {
         //if we actually removed this recipe
         if (recipeList.remove(recipe)) {
+            recipeInputIndex.removeRecipe(recipe);
+            recipeCache.invalidate();
+            onRecipeListChanged();
             //also iterate trough fluid mappings and remove recipe from them
             recipeFluidMap.values().forEach(fluidMap ->
                 fluidMap.removeIf(fluidRecipe -> fluidRecipe == recipe));
@@ -175,6 +211,13 @@ public class RecipeMap<R extends RecipeBuilder<R>> {
         return false;
     }
 
+    /**
+     * Called after recipe was added to or removed from this map.
+     * Recipe maps caching recipes derived from other sources should invalidate them here
+     */
+    protected void onRecipeListChanged() {
+    }
+
     protected ValidationResult<Recipe> postValidateRecipe(ValidationResult<Recipe> validationResult) {
         EnumValidationResult recipeStatus = validationResult.getType();
         Recipe recipe = validationResult.getResult();
@@ -203,43 +246,78 @@ public class RecipeMap<R extends RecipeBuilder<R>> {
     
     @Nullable
     public Recipe findRecipe(long voltage, IItemHandlerModifiable inputs, IMultipleTankHandler fluidInputs, int outputFluidTankCapacity) {
-        return this.findRecipe(voltage, GTUtility.itemHandlerToList(inputs), GTUtility.fluidHandlerToList(fluidInputs), outputFluidTankCapacity);
+        return this.findRecipe(voltage, new RecipeInputSnapshot().bind(inputs, fluidInputs), outputFluidTankCapacity);
+    }
+
+    /**
+     * Creates new input snapshot on every call, code searching recipes repeatedly
+     * should keep its own snapshot and use {@link #findRecipe(long, RecipeInputSnapshot, int)}
+     */
+    @Nullable
+    public Recipe findRecipe(long voltage, List<ItemStack> inputs, List<FluidStack> fluidInputs, int outputFluidTankCapacity) {
+        return this.findRecipe(voltage, new RecipeInputSnapshot(inputs, fluidInputs), outputFluidTankCapacity);
     }
 
     /**
      * Finds a Recipe matching the Fluid and ItemStack Inputs.
+     * Recipe logics should reuse input snapshot between searches, so search doesn't allocate anything
      *
      * @param voltage     Voltage of the Machine or Long.MAX_VALUE if it has no Voltage
-     * @param inputs      the Item Inputs
-     * @param fluidInputs the Fluid Inputs
+     * @param inputs      the Item and Fluid Inputs
      * @param outputFluidTankCapacity minimal capacity of output fluid tank, used for fluid canner recipes for example
      * @return the Recipe it has found or null for no matching Recipe
      */
     @Nullable
-    public Recipe findRecipe(long voltage, List<ItemStack> inputs, List<FluidStack> fluidInputs, int outputFluidTankCapacity) {
+    public Recipe findRecipe(long voltage, RecipeInputSnapshot inputs, int outputFluidTankCapacity) {
+        return findRecipe(voltage, inputs, outputFluidTankCapacity, true);
+    }
+
+    /**
+     * Finds a Recipe matching the Fluid and ItemStack Inputs, optionally bypassing search result cache.
+     * Searches which are repeated with many slightly different inputs, like searches for every single
+     * stack of the inventory, shouldn't use cache, since they would only evict useful entries from it.
+     * Every other search method delegates to this one, so recipe maps generating recipes
+     * on the fly should override this method rather than other findRecipe overloads
+     *
+     * @param useCache whether search result should be looked up in and saved into cache of this map
+     */
+    @Nullable
+    public Recipe findRecipe(long voltage, RecipeInputSnapshot inputs, int outputFluidTankCapacity, boolean useCache) {
         if (recipeList.isEmpty())
             return null;
-        if (minFluidInputs > 0 && GTUtility.amountOfNonNullElements(fluidInputs) < minFluidInputs) {
+        if (minFluidInputs > 0 && inputs.getNonEmptyFluidInputs() < minFluidInputs) {
             return null;
         }
-        if (minInputs > 0 && GTUtility.amountOfNonEmptyStacks(inputs) < minInputs) {
+        if (minInputs > 0 && inputs.getNonEmptyItemInputs() < minInputs) {
             return null;
         }
-        if (maxInputs > 0) {
-            return findByInputs(voltage, inputs, fluidInputs);
-        } else {
-            return findByFluidInputs(voltage, inputs, fluidInputs);
+        if (!useCache) {
+            return maxInputs > 0 ? findByInputs(voltage, inputs) : findByFluidInputs(voltage, inputs);
+        }
+        long fingerprint = RecipeCache.computeFingerprint(inputs, voltage, outputFluidTankCapacity);
+        RecipeCache.CacheEntry cacheEntry = recipeCache.get(fingerprint);
+        if (cacheEntry != null) {
+            Recipe cachedRecipe = cacheEntry.getRecipe();
+            //double check cached recipe in case of fingerprint collision
+            if (cachedRecipe == null || cachedRecipe.matches(false, inputs)) {
+                return cachedRecipe;
+            }
         }
+        Recipe recipe = maxInputs > 0 ? findByInputs(voltage, inputs) : findByFluidInputs(voltage, inputs);
+        recipeCache.put(fingerprint, recipe);
+        return recipe;
     }
 
     @Nullable
-    private Recipe findByFluidInputs(long voltage, List<ItemStack> inputs, List<FluidStack> fluidInputs) {
-        for (FluidStack fluid : fluidInputs) {
-            if (fluid == null) continue;
-            Collection<Recipe> recipes = recipeFluidMap.get(new FluidKey(fluid));
+    private Recipe findByFluidInputs(long voltage, RecipeInputSnapshot inputs) {
+        List<FluidStack> fluidInputs = inputs.getFluidInputs();
+        for (int i = 0; i < fluidInputs.size(); i++) {
+            if (fluidInputs.get(i) == null) continue;
+            List<Recipe> recipes = recipeFluidMap.get(inputs.getFluidKey(i));
             if (recipes == null) continue;
-            for (Recipe tmpRecipe : recipes) {
-                if (tmpRecipe.matches(false, inputs, fluidInputs)) {
+            for (int j = 0; j < recipes.size(); j++) {
+                Recipe tmpRecipe = recipes.get(j);
+                if (tmpRecipe.matches(false, inputs)) {
                     return voltage >= tmpRecipe.getEUt() ? tmpRecipe : null;
                 }
             }
@@ -248,9 +326,12 @@ public class RecipeMap<R extends RecipeBuilder<R>> {
     }
 
     @Nullable
-    private Recipe findByInputs(long voltage, List<ItemStack> inputs, List<FluidStack> fluidInputs) {
-        for (Recipe recipe : recipeList) {
-            if (recipe.matches(false, inputs, fluidInputs)) {
+    private Recipe findByInputs(long voltage, RecipeInputSnapshot inputs) {
+        //only check recipes which have at least one of their inputs present
+        List<Recipe> candidates = recipeInputIndex.findCandidates(inputs);
+        for (int i = 0; i < candidates.size(); i++) {
+            Recipe recipe = candidates.get(i);
+            if (recipe.matches(false, inputs)) {
                 return voltage >= recipe.getEUt() ? recipe : null;
             }
         }
@@ -0,0 +1,352 @@
+package gregtech.api.recipes;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import gregtech.api.GTValues;
+import gregtech.api.recipes.Recipe.ChanceEntry;
+import gregtech.api.recipes.ingredients.IntCircuitIngredient;
+import gregtech.api.recipes.ingredients.NBTIngredient;
+import gregtech.api.util.GTLog;
+import gregtech.common.ConfigHolder;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.Ingredient;
+import net.minecraft.nbt.*;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.common.util.Constants.NBT;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.ModContainer;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Binary snapshot of all {@link RecipeMap} contents, used to skip recipe generation on restarts.
+ * <p>
+ * Snapshot is keyed by hash of active mod list, GregTech config and script files. If key matches,
+ * recipe maps are restored from snapshot before recipe registration starts, and all recipe map
+ * additions and removals are ignored until loading is complete, because snapshot already contains
+ * their results. Otherwise recipes are generated as usual and snapshot is saved when loading is complete.
+ * <p>
+ * Only recipes consisting of ingredients and properties which can be serialized are supported.
+ * If any recipe cannot be serialized, snapshot is not saved at all.
+ */
+public class RecipeMapSnapshot {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static String snapshotKey;
+    private static boolean isRestored;
+
+    /**
+     * @return true if recipe maps were restored from snapshot and loading is not complete yet,
+     * so recipe map contents shouldn't be changed
+     */
+    public static boolean isRestored() {
+        return isRestored;
+    }
+
+    /**
+     * Restores recipe maps from snapshot if its key matches current setup.
+     * Should be called before any recipes are registered
+     */
+    public static void tryRestore() {
+        if (!ConfigHolder.useRecipeSnapshot) return;
+        Path snapshotPath = getSnapshotPath();
+        try {
+            snapshotKey = computeSnapshotKey();
+            if (!Files.exists(snapshotPath)) return;
+            NBTTagCompound snapshotTag;
+            try (InputStream inputStream = Files.newInputStream(snapshotPath)) {
+                snapshotTag = CompressedStreamTools.readCompressed(inputStream);
+            }
+            if (snapshotTag.getInteger("Version") != FORMAT_VERSION ||
+                !snapshotKey.equals(snapshotTag.getString("Key"))) {
+                GTLog.logger.info("Recipe snapshot is outdated, recipes will be generated");
+                return;
+            }
+            //read everything before touching recipe maps, so broken snapshot doesn't leave them half-restored
+            Map<RecipeMap<?>, List<Recipe>> restoredRecipes = new HashMap<>();
+            NBTTagCompound mapsTag = snapshotTag.getCompoundTag("RecipeMaps");
+            for (RecipeMap<?> recipeMap : RecipeMap.getRecipeMaps()) {
+                NBTTagList recipesTag = mapsTag.getTagList(recipeMap.unlocalizedName, NBT.TAG_COMPOUND);
+                List<Recipe> recipes = new ArrayList<>(recipesTag.tagCount());
+                for (int i = 0; i < recipesTag.tagCount(); i++) {
+                    recipes.add(readRecipe(recipesTag.getCompoundTagAt(i)));
+                }
+                restoredRecipes.put(recipeMap, recipes);
+            }
+            int totalRecipes = 0;
+            for (RecipeMap<?> recipeMap : RecipeMap.getRecipeMaps()) {
+                List<Recipe> recipes = restoredRecipes.get(recipeMap);
+                recipeMap.restoreRecipes(recipes);
+                totalRecipes += recipes.size();
+            }
+            isRestored = true;
+            GTLog.logger.info("Restored {} recipes from recipe snapshot", totalRecipes);
+        } catch (IOException | RuntimeException exception) {
+            GTLog.logger.error("Failed to restore recipe snapshot from {}, recipes will be generated", snapshotPath, exception);
+        }
+    }
+
+    /**
+     * Saves recipe maps to snapshot if they weren't restored from it, or allows
+     * changing recipe map contents again otherwise. Should be called once loading is complete
+     */
+    public static void onLoadComplete() {
+        if (!ConfigHolder.useRecipeSnapshot) return;
+        if (isRestored) {
+            isRestored = false;
+            return;
+        }
+        if (snapshotKey == null) return;
+        Path snapshotPath = getSnapshotPath();
+        try {
+            NBTTagCompound mapsTag = new NBTTagCompound();
+            for (RecipeMap<?> recipeMap : RecipeMap.getRecipeMaps()) {
+                NBTTagList recipesTag = new NBTTagList();
+                for (Recipe recipe : recipeMap.getRecipeList()) {
+                    recipesTag.appendTag(writeRecipe(recipe));
+                }
+                mapsTag.setTag(recipeMap.unlocalizedName, recipesTag);
+            }
+            NBTTagCompound snapshotTag = new NBTTagCompound();
+            snapshotTag.setInteger("Version", FORMAT_VERSION);
+            snapshotTag.setString("Key", snapshotKey);
+            snapshotTag.setTag("RecipeMaps", mapsTag);
+
+            Files.createDirectories(snapshotPath.getParent());
+            Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+                CompressedStreamTools.writeCompressed(snapshotTag, outputStream);
+            }
+            Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+            GTLog.logger.info("Saved recipe snapshot to {}", snapshotPath);
+        } catch (IllegalArgumentException exception) {
+            GTLog.logger.warn("Recipe snapshot wasn't saved: {}", exception.getMessage());
+        } catch (IOException exception) {
+            GTLog.logger.error("Failed to save recipe snapshot to {}", snapshotPath, exception);
+        }
+    }
+
+    private static Path getSnapshotPath() {
+        return Loader.instance().getConfigDir().toPath().resolve(GTValues.MODID).resolve("recipe_snapshot.dat");
+    }
+
+    private static String computeSnapshotKey() throws IOException {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putInt(FORMAT_VERSION);
+        for (ModContainer modContainer : Loader.instance().getActiveModList()) {
+            hasher.putString(modContainer.getModId(), StandardCharsets.UTF_8);
+            hasher.putString(modContainer.getVersion(), StandardCharsets.UTF_8);
+        }
+        Path configDir = Loader.instance().getConfigDir().toPath();
+        hashFile(hasher, configDir.resolve(GTValues.MODID + ".cfg"));
+        Path scriptsDir = configDir.getParent().resolve("scripts");
+        if (Files.isDirectory(scriptsDir)) {
+            List<Path> scriptFiles;
+            try (Stream<Path> paths = Files.walk(scriptsDir)) {
+                scriptFiles = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path scriptFile : scriptFiles) {
+                hasher.putString(scriptsDir.relativize(scriptFile).toString(), StandardCharsets.UTF_8);
+                hashFile(hasher, scriptFile);
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void hashFile(Hasher hasher, Path path) throws IOException {
+        if (Files.exists(path)) {
+            hasher.putBytes(Files.readAllBytes(path));
+        }
+    }
+
+    private static NBTTagCompound writeRecipe(Recipe recipe) {
+        if (recipe.getClass() != Recipe.class) {
+            throw new IllegalArgumentException("recipe type " + recipe.getClass().getName() + " is not supported");
+        }
+        NBTTagCompound recipeTag = new NBTTagCompound();
+        NBTTagList inputsTag = new NBTTagList();
+        for (CountableIngredient ingredient : recipe.getInputs()) {
+            inputsTag.appendTag(writeIngredient(ingredient));
+        }
+        recipeTag.setTag("Inputs", inputsTag);
+        recipeTag.setTag("Outputs", writeItemStacks(recipe.getOutputs()));
+        NBTTagList chancedOutputsTag = new NBTTagList();
+        for (ChanceEntry chanceEntry : recipe.getChancedOutputs()) {
+            NBTTagCompound chanceEntryTag = writeItemStack(chanceEntry.getItemStack());
+            chanceEntryTag.setInteger("Chance", chanceEntry.getChance());
+            chanceEntryTag.setInteger("BoostPerTier", chanceEntry.getBoostPerTier());
+            chancedOutputsTag.appendTag(chanceEntryTag);
+        }
+        recipeTag.setTag("ChancedOutputs", chancedOutputsTag);
+        recipeTag.setTag("FluidInputs", writeFluidStacks(recipe.getFluidInputs()));
+        recipeTag.setTag("FluidOutputs", writeFluidStacks(recipe.getFluidOutputs()));
+        NBTTagCompound propertiesTag = new NBTTagCompound();
+        for (String propertyKey : recipe.getPropertyKeys()) {
+            propertiesTag.setTag(propertyKey, writeProperty(recipe.getProperty(propertyKey)));
+        }
+        recipeTag.setTag("Properties", propertiesTag);
+        recipeTag.setInteger("Duration", recipe.getDuration());
+        recipeTag.setInteger("EUt", recipe.getEUt());
+        recipeTag.setBoolean("Hidden", recipe.isHidden());
+        return recipeTag;
+    }
+
+    private static Recipe readRecipe(NBTTagCompound recipeTag) {
+        NBTTagList inputsTag = recipeTag.getTagList("Inputs", NBT.TAG_COMPOUND);
+        List<CountableIngredient> inputs = new ArrayList<>(inputsTag.tagCount());
+        for (int i = 0; i < inputsTag.tagCount(); i++) {
+            inputs.add(readIngredient(inputsTag.getCompoundTagAt(i)));
+        }
+        NBTTagList chancedOutputsTag = recipeTag.getTagList("ChancedOutputs", NBT.TAG_COMPOUND);
+        List<ChanceEntry> chancedOutputs = new ArrayList<>(chancedOutputsTag.tagCount());
+        for (int i = 0; i < chancedOutputsTag.tagCount(); i++) {
+            NBTTagCompound chanceEntryTag = chancedOutputsTag.getCompoundTagAt(i);
+            chancedOutputs.add(new ChanceEntry(readItemStack(chanceEntryTag),
+                chanceEntryTag.getInteger("Chance"), chanceEntryTag.getInteger("BoostPerTier")));
+        }
+        Map<String, Object> properties = new HashMap<>();
+        NBTTagCompound propertiesTag = recipeTag.getCompoundTag("Properties");
+        for (String propertyKey : propertiesTag.getKeySet()) {
+            properties.put(propertyKey, readProperty(propertiesTag.getTag(propertyKey)));
+        }
+        return new Recipe(inputs,
+            readItemStacks(recipeTag.getTagList("Outputs", NBT.TAG_COMPOUND)), chancedOutputs,
+            readFluidStacks(recipeTag.getTagList("FluidInputs", NBT.TAG_COMPOUND)),
+            readFluidStacks(recipeTag.getTagList("FluidOutputs", NBT.TAG_COMPOUND)),
+            properties, recipeTag.getInteger("Duration"), recipeTag.getInteger("EUt"), recipeTag.getBoolean("Hidden"));
+    }
+
+    private static NBTTagCompound writeIngredient(CountableIngredient countableIngredient) {
+        NBTTagCompound ingredientTag = new NBTTagCompound();
+        ingredientTag.setInteger("Count", countableIngredient.getCount());
+        Ingredient ingredient = countableIngredient.getIngredient();
+        if (countableIngredient.getOreDictName() != null) {
+            ingredientTag.setString("OreDict", countableIngredient.getOreDictName());
+        } else if (ingredient instanceof IntCircuitIngredient) {
+            ingredientTag.setIntArray("Circuit", ((IntCircuitIngredient) ingredient).getMatchingConfigurations());
+        } else if (ingredient instanceof NBTIngredient) {
+            ingredientTag.setTag("NBTStack", writeItemStack(ingredient.getMatchingStacks()[0]));
+        } else if (ingredient.getClass() == Ingredient.class) {
+            ingredientTag.setTag("Stacks", writeItemStacks(Arrays.asList(ingredient.getMatchingStacks())));
+        } else {
+            throw new IllegalArgumentException("ingredient type " + ingredient.getClass().getName() + " is not supported");
+        }
+        return ingredientTag;
+    }
+
+    private static CountableIngredient readIngredient(NBTTagCompound ingredientTag) {
+        int count = ingredientTag.getInteger("Count");
+        if (ingredientTag.hasKey("OreDict")) {
+            return CountableIngredient.from(ingredientTag.getString("OreDict"), count);
+        } else if (ingredientTag.hasKey("Circuit")) {
+            return new CountableIngredient(new IntCircuitIngredient(ingredientTag.getIntArray("Circuit")), count);
+        } else if (ingredientTag.hasKey("NBTStack")) {
+            return new CountableIngredient(new NBTIngredient(readItemStack(ingredientTag.getCompoundTag("NBTStack"))), count);
+        }
+        List<ItemStack> matchingStacks = readItemStacks(ingredientTag.getTagList("Stacks", NBT.TAG_COMPOUND));
+        return new CountableIngredient(Ingredient.fromStacks(matchingStacks.toArray(new ItemStack[0])), count);
+    }
+
+    //unlike ItemStack#writeToNBT, doesn't limit stack size to byte
+    private static NBTTagCompound writeItemStack(ItemStack itemStack) {
+        NBTTagCompound stackTag = new NBTTagCompound();
+        stackTag.setString("id", String.valueOf(itemStack.getItem().getRegistryName()));
+        stackTag.setInteger("Count", itemStack.getCount());
+        stackTag.setInteger("Damage", itemStack.getItemDamage());
+        if (itemStack.getTagCompound() != null) {
+            stackTag.setTag("tag", itemStack.getTagCompound().copy());
+        }
+        return stackTag;
+    }
+
+    private static ItemStack readItemStack(NBTTagCompound stackTag) {
+        ResourceLocation itemName = new ResourceLocation(stackTag.getString("id"));
+        if (!ForgeRegistries.ITEMS.containsKey(itemName)) {
+            throw new IllegalStateException("Unknown item " + itemName);
+        }
+        Item item = ForgeRegistries.ITEMS.getValue(itemName);
+        ItemStack itemStack = new ItemStack(item, stackTag.getInteger("Count"), stackTag.getInteger("Damage"));
+        if (stackTag.hasKey("tag", NBT.TAG_COMPOUND)) {
+            itemStack.setTagCompound(stackTag.getCompoundTag("tag"));
+        }
+        return itemStack;
+    }
+
+    private static NBTTagList writeItemStacks(List<ItemStack> itemStacks) {
+        NBTTagList stacksTag = new NBTTagList();
+        for (ItemStack itemStack : itemStacks) {
+            stacksTag.appendTag(writeItemStack(itemStack));
+        }
+        return stacksTag;
+    }
+
+    private static List<ItemStack> readItemStacks(NBTTagList stacksTag) {
+        List<ItemStack> itemStacks = new ArrayList<>(stacksTag.tagCount());
+        for (int i = 0; i < stacksTag.tagCount(); i++) {
+            itemStacks.add(readItemStack(stacksTag.getCompoundTagAt(i)));
+        }
+        return itemStacks;
+    }
+
+    private static NBTTagList writeFluidStacks(List<FluidStack> fluidStacks) {
+        NBTTagList stacksTag = new NBTTagList();
+        for (FluidStack fluidStack : fluidStacks) {
+            stacksTag.appendTag(fluidStack.writeToNBT(new NBTTagCompound()));
+        }
+        return stacksTag;
+    }
+
+    private static List<FluidStack> readFluidStacks(NBTTagList stacksTag) {
+        List<FluidStack> fluidStacks = new ArrayList<>(stacksTag.tagCount());
+        for (int i = 0; i < stacksTag.tagCount(); i++) {
+            NBTTagCompound stackTag = stacksTag.getCompoundTagAt(i);
+            FluidStack fluidStack = FluidStack.loadFluidStackFromNBT(stackTag);
+            if (fluidStack == null) {
+                throw new IllegalStateException("Unknown fluid " + stackTag.getString("FluidName"));
+            }
+            fluidStacks.add(fluidStack);
+        }
+        return fluidStacks;
+    }
+
+    private static NBTBase writeProperty(Object value) {
+        if (value instanceof Integer) {
+            return new NBTTagInt((Integer) value);
+        } else if (value instanceof Long) {
+            return new NBTTagLong((Long) value);
+        } else if (value instanceof Boolean) {
+            return new NBTTagByte((byte) ((Boolean) value ? 1 : 0));
+        } else if (value instanceof String) {
+            return new NBTTagString((String) value);
+        }
+        throw new IllegalArgumentException("recipe property type " + value.getClass().getName() + " is not supported");
+    }
+
+    private static Object readProperty(NBTBase propertyTag) {
+        switch (propertyTag.getId()) {
+            case NBT.TAG_INT:
+                return ((NBTTagInt) propertyTag).getInt();
+            case NBT.TAG_LONG:
+                return ((NBTTagLong) propertyTag).getLong();
+            case NBT.TAG_BYTE:
+                return ((NBTTagByte) propertyTag).getByte() != 0;
+            case NBT.TAG_STRING:
+                return ((NBTTagString) propertyTag).getString();
+            default:
+                throw new IllegalStateException("Unknown recipe property tag type " + propertyTag.getId());
+        }
+    }
+}
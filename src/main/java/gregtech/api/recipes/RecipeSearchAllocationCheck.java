@@ -0,0 +1,93 @@
+package gregtech.api.recipes;
+
+import gregtech.api.util.GTLog;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fluids.FluidStack;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Startup self-check verifying that steady-state recipe search through {@link RecipeInputSnapshot}
+ * doesn't allocate anything. For every recipe map, inputs of its first recipe are searched
+ * repeatedly with and without search cache, and bytes allocated by the current thread are counted.
+ * <p>
+ * Relies on per-thread allocation counters of HotSpot, so check is skipped on JVMs which don't support them.
+ */
+public class RecipeSearchAllocationCheck {
+
+    private static final int WARMUP_SEARCHES = 100;
+    private static final int MEASURED_SEARCHES = 1000;
+
+    /**
+     * Runs the check for all recipe maps and logs its results
+     *
+     * @return true if no recipe map search allocated anything, or check is not supported
+     */
+    public static boolean run() {
+        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            GTLog.logger.warn("Skipping recipe search allocation check, JVM doesn't provide thread allocation counters");
+            return true;
+        }
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!allocationBean.isThreadAllocatedMemorySupported() || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+            GTLog.logger.warn("Skipping recipe search allocation check, thread allocation counters are disabled");
+            return true;
+        }
+        boolean passed = true;
+        for (RecipeMap<?> recipeMap : RecipeMap.getRecipeMaps()) {
+            if (recipeMap.getRecipeList().isEmpty()) continue;
+            Recipe recipe = recipeMap.getRecipeList().iterator().next();
+            RecipeInputSnapshot snapshot = new RecipeInputSnapshot(getItemInputs(recipe), getFluidInputs(recipe));
+            long cachedBytes = measureSearch(allocationBean, recipeMap, snapshot, true);
+            long uncachedBytes = measureSearch(allocationBean, recipeMap, snapshot, false);
+            if (cachedBytes > 0 || uncachedBytes > 0) {
+                GTLog.logger.warn("Recipe search in {} allocated {} bytes with cache and {} bytes without cache over {} searches",
+                    recipeMap.getUnlocalizedName(), cachedBytes, uncachedBytes, MEASURED_SEARCHES);
+                passed = false;
+            }
+        }
+        if (passed) {
+            GTLog.logger.info("Recipe search allocation check passed");
+        }
+        return passed;
+    }
+
+    private static long measureSearch(com.sun.management.ThreadMXBean allocationBean, RecipeMap<?> recipeMap, RecipeInputSnapshot snapshot, boolean useCache) {
+        for (int i = 0; i < WARMUP_SEARCHES; i++) {
+            recipeMap.findRecipe(Long.MAX_VALUE, snapshot, Integer.MAX_VALUE, useCache);
+        }
+        long threadId = Thread.currentThread().getId();
+        //reading the counter can allocate by itself, so subtract cost of one empty measurement
+        long overheadStart = allocationBean.getThreadAllocatedBytes(threadId);
+        long overhead = allocationBean.getThreadAllocatedBytes(threadId) - overheadStart;
+        long startBytes = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_SEARCHES; i++) {
+            recipeMap.findRecipe(Long.MAX_VALUE, snapshot, Integer.MAX_VALUE, useCache);
+        }
+        long allocatedBytes = allocationBean.getThreadAllocatedBytes(threadId) - startBytes - overhead;
+        return Math.max(0L, allocatedBytes);
+    }
+
+    private static List<ItemStack> getItemInputs(Recipe recipe) {
+        List<ItemStack> itemInputs = new ArrayList<>();
+        for (CountableIngredient ingredient : recipe.getInputs()) {
+            ItemStack[] matchingStacks = ingredient.getIngredient().getMatchingStacks();
+            if (matchingStacks.length == 0) continue;
+            ItemStack inputStack = matchingStacks[0].copy();
+            inputStack.setCount(Math.max(1, ingredient.getCount()));
+            itemInputs.add(inputStack);
+        }
+        return itemInputs;
+    }
+
+    private static List<FluidStack> getFluidInputs(Recipe recipe) {
+        List<FluidStack> fluidInputs = new ArrayList<>();
+        for (FluidStack fluidStack : recipe.getFluidInputs()) {
+            fluidInputs.add(fluidStack.copy());
+        }
+        return fluidInputs;
+    }
+}
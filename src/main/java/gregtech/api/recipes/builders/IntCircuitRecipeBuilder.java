@@ -9,6 +9,7 @@ import gregtech.api.recipes.ingredients.IntCircuitIngredient;
 import gregtech.api.util.EnumValidationResult;
 import gregtech.api.util.GTLog;
 import gregtech.api.util.GTUtility;
+import gregtech.api.util.RegistrationBuffer;
 import gregtech.api.util.ValidationResult;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
@@ -53,7 +54,7 @@ public class IntCircuitRecipeBuilder extends RecipeBuilder<IntCircuitRecipeBuild
     @Override
     protected EnumValidationResult finalizeAndValidate() {
         if (circuitMeta >= 0) {
-            inputs.add(new CountableIngredient(new IntCircuitIngredient(circuitMeta), 0));
+            inputs.add(new CountableIngredient(RegistrationBuffer.createIngredient(() -> new IntCircuitIngredient(circuitMeta)), 0));
         }
         return super.finalizeAndValidate();
     }
@@ -49,6 +49,10 @@ public class IntCircuitIngredient extends Ingredient {
         this.matchingConfigurations = matchingConfigurations;
     }
 
+    public int[] getMatchingConfigurations() {
+        return matchingConfigurations;
+    }
+
     @Override
     public boolean apply(@Nullable ItemStack itemStack) {
         return itemStack != null && MetaItems.INTEGRATED_CIRCUIT.isItemEqual(itemStack) &&
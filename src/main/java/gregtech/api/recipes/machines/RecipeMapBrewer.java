@@ -2,6 +2,7 @@ package gregtech.api.recipes.machines;
 
 import gregtech.api.recipes.CountableIngredient;
 import gregtech.api.recipes.Recipe;
+import gregtech.api.recipes.RecipeInputSnapshot;
 import gregtech.api.recipes.RecipeMap;
 import gregtech.api.recipes.builders.SimpleRecipeBuilder;
 import gregtech.api.recipes.ingredients.NBTIngredient;
@@ -34,8 +35,10 @@ public class RecipeMapBrewer extends RecipeMap<SimpleRecipeBuilder> {
 
     @Nullable
     @Override
-    public Recipe findRecipe(long voltage, List<ItemStack> inputs, List<FluidStack> fluidInputs, int outputFluidTankCapacity) {
-        Recipe recipe = super.findRecipe(voltage, inputs, fluidInputs, outputFluidTankCapacity);
+    public Recipe findRecipe(long voltage, RecipeInputSnapshot snapshot, int outputFluidTankCapacity, boolean useCache) {
+        Recipe recipe = super.findRecipe(voltage, snapshot, outputFluidTankCapacity, useCache);
+        List<ItemStack> inputs = snapshot.getItemInputs();
+        List<FluidStack> fluidInputs = snapshot.getFluidInputs();
         if (recipe != null ||
             GTUtility.amountOfNonNullElements(fluidInputs) < 1 ||
             GTUtility.amountOfNonEmptyStacks(inputs) < 1) {
@@ -2,6 +2,7 @@ package gregtech.api.recipes.machines;
 
 import gregtech.api.recipes.CountableIngredient;
 import gregtech.api.recipes.Recipe;
+import gregtech.api.recipes.RecipeInputSnapshot;
 import gregtech.api.recipes.RecipeMap;
 import gregtech.api.recipes.builders.SimpleRecipeBuilder;
 import gregtech.api.recipes.ingredients.NBTIngredient;
@@ -27,8 +28,10 @@ public class RecipeMapFluidCanner extends RecipeMap<SimpleRecipeBuilder> {
 
     @Override
     @Nullable
-    public Recipe findRecipe(long voltage, List<ItemStack> inputs, List<FluidStack> fluidInputs, int outputFluidTankCapacity) {
-        Recipe recipe = super.findRecipe(voltage, inputs, fluidInputs, outputFluidTankCapacity);
+    public Recipe findRecipe(long voltage, RecipeInputSnapshot snapshot, int outputFluidTankCapacity, boolean useCache) {
+        Recipe recipe = super.findRecipe(voltage, snapshot, outputFluidTankCapacity, useCache);
+        List<ItemStack> inputs = snapshot.getItemInputs();
+        List<FluidStack> fluidInputs = snapshot.getFluidInputs();
         if (inputs.size() == 0 || inputs.get(0).isEmpty() || recipe != null)
             return recipe;
 
@@ -1,13 +1,13 @@
 package gregtech.api.recipes.machines;
 
 import gregtech.api.recipes.Recipe;
+import gregtech.api.recipes.RecipeInputSnapshot;
 import gregtech.api.recipes.RecipeMap;
 import gregtech.api.recipes.builders.SimpleRecipeBuilder;
 import gregtech.api.recipes.ingredients.NBTIngredient;
 import gregtech.api.util.GTUtility;
 import gregtech.common.items.MetaItems;
 import net.minecraft.item.ItemStack;
-import net.minecraftforge.fluids.FluidStack;
 
 import javax.annotation.Nullable;
 import java.util.List;
@@ -20,8 +20,9 @@ public class RecipeMapFormingPress extends RecipeMap<SimpleRecipeBuilder> {
 
     @Override
     @Nullable
-    public Recipe findRecipe(long voltage, List<ItemStack> inputs, List<FluidStack> fluidInputs, int outputFluidTankCapacity) {
-        Recipe recipe = super.findRecipe(voltage, inputs, fluidInputs, outputFluidTankCapacity);
+    public Recipe findRecipe(long voltage, RecipeInputSnapshot snapshot, int outputFluidTankCapacity, boolean useCache) {
+        Recipe recipe = super.findRecipe(voltage, snapshot, outputFluidTankCapacity, useCache);
+        List<ItemStack> inputs = snapshot.getItemInputs();
         if (inputs.size() < 2 || inputs.get(0).isEmpty() || inputs.get(1).isEmpty()) {
             return recipe;
         }
@@ -1,33 +1,80 @@
 package gregtech.api.recipes.machines;
 
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
 import gregtech.api.recipes.ModHandler;
 import gregtech.api.recipes.Recipe;
+import gregtech.api.recipes.RecipeInputSnapshot;
 import gregtech.api.recipes.RecipeMap;
 import gregtech.api.recipes.builders.SimpleRecipeBuilder;
 import gregtech.api.util.GTUtility;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraftforge.fluids.FluidStack;
+import net.minecraft.item.crafting.FurnaceRecipes;
 
 import javax.annotation.Nullable;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class RecipeMapFurnace extends RecipeMap<SimpleRecipeBuilder> {
 
+    //smelting recipes derived from vanilla furnace recipes, null values mean item cannot be smelted
+    private final Map<Item, TIntObjectMap<Recipe>> smeltingRecipes = new HashMap<>();
+    private int lastSmeltingListSize = -1;
+
     public RecipeMapFurnace(String unlocalizedName, int minInputs, int maxInputs, int minOutputs, int maxOutputs, int minFluidInputs, int maxFluidInputs, int minFluidOutputs, int maxFluidOutputs, int amperage, SimpleRecipeBuilder defaultRecipe) {
         super(unlocalizedName, minInputs, maxInputs, minOutputs, maxOutputs, minFluidInputs, maxFluidInputs, minFluidOutputs, maxFluidOutputs, defaultRecipe);
     }
 
     @Override
     @Nullable
-    public Recipe findRecipe(long voltage, List<ItemStack> inputs, List<FluidStack> fluidInputs, int outputFluidTankCapacity) {
-        Recipe normalRecipe = super.findRecipe(voltage, inputs, fluidInputs, outputFluidTankCapacity);
+    public Recipe findRecipe(long voltage, RecipeInputSnapshot snapshot, int outputFluidTankCapacity, boolean useCache) {
+        Recipe normalRecipe = super.findRecipe(voltage, snapshot, outputFluidTankCapacity, useCache);
+        List<ItemStack> inputs = snapshot.getItemInputs();
         if (normalRecipe != null || inputs.size() == 0 || inputs.get(0).isEmpty())
             return normalRecipe;
-        ItemStack output = ModHandler.getSmeltingOutput(inputs.get(0));
+        return getSmeltingRecipe(inputs.get(0));
+    }
+
+    @Override
+    protected void onRecipeListChanged() {
+        invalidateSmeltingRecipes();
+    }
+
+    /**
+     * Smelting recipes only depend on item and metadata of the input,
+     * so they are created once and reused for subsequent searches
+     */
+    @Nullable
+    private synchronized Recipe getSmeltingRecipe(ItemStack inputStack) {
+        int smeltingListSize = FurnaceRecipes.instance().getSmeltingList().size();
+        if (lastSmeltingListSize != smeltingListSize) {
+            //vanilla furnace recipes changed, so derived recipes are no longer valid
+            invalidateSmeltingRecipes();
+            this.lastSmeltingListSize = smeltingListSize;
+        }
+        TIntObjectMap<Recipe> metadataMap = smeltingRecipes.computeIfAbsent(inputStack.getItem(), k -> new TIntObjectHashMap<>());
+        int metadata = inputStack.getMetadata();
+        if (metadataMap.containsKey(metadata)) {
+            return metadataMap.get(metadata);
+        }
+        Recipe smeltingRecipe = createSmeltingRecipe(inputStack);
+        metadataMap.put(metadata, smeltingRecipe);
+        return smeltingRecipe;
+    }
+
+    @Nullable
+    private Recipe createSmeltingRecipe(ItemStack inputStack) {
+        ItemStack output = ModHandler.getSmeltingOutput(inputStack);
         return output.isEmpty() ? null : this.recipeBuilder()
-            .inputs(GTUtility.copyAmount(1, inputs.get(0)))
+            .inputs(GTUtility.copyAmount(1, inputStack))
             .outputs(output)
             .duration(128).EUt(4)
             .build().getResult();
     }
+
+    private synchronized void invalidateSmeltingRecipes() {
+        smeltingRecipes.clear();
+    }
 }
@@ -9,6 +9,7 @@ import gregtech.api.unification.material.type.Material;
 import gregtech.api.unification.ore.OrePrefix;
 import gregtech.api.unification.stack.*;
 import gregtech.api.util.CustomModPriorityComparator;
+import gregtech.api.util.RegistrationBuffer;
 import gregtech.common.ConfigHolder;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.NonNullList;
@@ -70,17 +71,26 @@ public class OreDictUnifier {
 
     public static void registerOre(ItemStack itemStack, ItemMaterialInfo materialInfo) {
         if (itemStack.isEmpty()) return;
-        materialUnificationInfo.put(new ItemAndMetadata(itemStack), materialInfo);
+        if (RegistrationBuffer.defer(() -> registerOre(itemStack, materialInfo))) return;
+        synchronized (RegistrationBuffer.getRegistryLock()) {
+            materialUnificationInfo.put(new ItemAndMetadata(itemStack), materialInfo);
+        }
     }
 
     public static void registerOre(ItemStack itemStack, OrePrefix orePrefix, @Nullable Material material) {
         if (itemStack.isEmpty()) return;
-        OreDictionary.registerOre(orePrefix.name() + (material == null ? "" : material.toCamelCaseString()), itemStack);
+        if (RegistrationBuffer.defer(() -> registerOre(itemStack, orePrefix, material))) return;
+        synchronized (RegistrationBuffer.getRegistryLock()) {
+            OreDictionary.registerOre(orePrefix.name() + (material == null ? "" : material.toCamelCaseString()), itemStack);
+        }
     }
 
     public static void registerOre(ItemStack itemStack, String oreDict) {
         if (itemStack.isEmpty()) return;
-        OreDictionary.registerOre(oreDict, itemStack);
+        if (RegistrationBuffer.defer(() -> registerOre(itemStack, oreDict))) return;
+        synchronized (RegistrationBuffer.getRegistryLock()) {
+            OreDictionary.registerOre(oreDict, itemStack);
+        }
     }
 
     public static void init() {
@@ -98,8 +108,10 @@ public class OreDictUnifier {
         ItemAndMetadata simpleItemStack = new ItemAndMetadata(event.getOre());
         String oreName = event.getName();
         //cache this registration by name
-        stackOreDictName.computeIfAbsent(simpleItemStack, k -> new HashSet<>()).add(oreName);
-        oreDictNameStacks.computeIfAbsent(oreName, k -> new ArrayList<>()).add(event.getOre().copy());
+        synchronized (RegistrationBuffer.getRegistryLock()) {
+            stackOreDictName.computeIfAbsent(simpleItemStack, k -> new HashSet<>()).add(oreName);
+            oreDictNameStacks.computeIfAbsent(oreName, k -> new ArrayList<>()).add(event.getOre().copy());
+        }
 
         //and try to transform registration name into OrePrefix + Material pair
         OrePrefix orePrefix = OrePrefix.getPrefix(oreName);
@@ -144,9 +156,11 @@ public class OreDictUnifier {
         //finally register item
         if (orePrefix != null && (material != null || orePrefix.isSelfReferencing)) {
             UnificationEntry unificationEntry = new UnificationEntry(orePrefix, material);
-            stackUnificationItems.computeIfAbsent(unificationEntry, p -> new ArrayList<>()).add(simpleItemStack);
-            if (!unificationEntry.orePrefix.isMarkerPrefix()) {
-                stackUnificationInfo.put(simpleItemStack, unificationEntry);
+            synchronized (RegistrationBuffer.getRegistryLock()) {
+                stackUnificationItems.computeIfAbsent(unificationEntry, p -> new ArrayList<>()).add(simpleItemStack);
+                if (!unificationEntry.orePrefix.isMarkerPrefix()) {
+                    stackUnificationInfo.put(simpleItemStack, unificationEntry);
+                }
             }
             orePrefix.processOreRegistration(material);
         }
@@ -155,22 +169,31 @@ public class OreDictUnifier {
     public static Set<String> getOreDictionaryNames(ItemStack itemStack) {
         if (itemStack.isEmpty()) return Collections.emptySet();
         ItemAndMetadata simpleItemStack = new ItemAndMetadata(itemStack);
-        if (stackOreDictName.containsKey(simpleItemStack))
-            return Collections.unmodifiableSet(stackOreDictName.get(simpleItemStack));
+        synchronized (RegistrationBuffer.getRegistryLock()) {
+            if (stackOreDictName.containsKey(simpleItemStack))
+                return Collections.unmodifiableSet(stackOreDictName.get(simpleItemStack));
+        }
         return Collections.emptySet();
     }
 
     public static List<ItemStack> getAllWithOreDictionaryName(String oreDictionaryName) {
-        return oreDictNameStacks.get(oreDictionaryName).stream()
-            .map(ItemStack::copy)
-            .collect(Collectors.toList());
+        synchronized (RegistrationBuffer.getRegistryLock()) {
+            return oreDictNameStacks.get(oreDictionaryName).stream()
+                .map(ItemStack::copy)
+                .collect(Collectors.toList());
+        }
     }
 
     @Nullable
     public static MaterialStack getMaterial(ItemStack itemStack) {
         if (itemStack.isEmpty()) return null;
         ItemAndMetadata simpleItemStack = new ItemAndMetadata(itemStack);
-        UnificationEntry entry = stackUnificationInfo.get(simpleItemStack);
+        UnificationEntry entry;
+        ItemMaterialInfo info;
+        synchronized (RegistrationBuffer.getRegistryLock()) {
+            entry = stackUnificationInfo.get(simpleItemStack);
+            info = materialUnificationInfo.get(simpleItemStack);
+        }
         if (entry != null) {
             Material entryMaterial = entry.material;
             if (entryMaterial == null) {
@@ -180,15 +203,12 @@ public class OreDictUnifier {
                 return new MaterialStack(entryMaterial, entry.orePrefix.materialAmount);
             }
         }
-        ItemMaterialInfo info = materialUnificationInfo.get(simpleItemStack);
         return info == null ? null : info.material.copy();
     }
 
     @Nullable
     public static OrePrefix getPrefix(ItemStack itemStack) {
-        if (itemStack.isEmpty()) return null;
-        ItemAndMetadata simpleItemStack = new ItemAndMetadata(itemStack);
-        UnificationEntry entry = stackUnificationInfo.get(simpleItemStack);
+        UnificationEntry entry = getUnificationEntry(itemStack);
         if (entry != null) return entry.orePrefix;
         return null;
     }
@@ -196,17 +216,24 @@ public class OreDictUnifier {
     @Nullable
     public static UnificationEntry getUnificationEntry(ItemStack itemStack) {
         if (itemStack.isEmpty()) return null;
-        return stackUnificationInfo.get(new ItemAndMetadata(itemStack));
+        ItemAndMetadata simpleItemStack = new ItemAndMetadata(itemStack);
+        synchronized (RegistrationBuffer.getRegistryLock()) {
+            return stackUnificationInfo.get(simpleItemStack);
+        }
     }
 
     public static ItemStack getUnificated(ItemStack itemStack) {
         if (itemStack.isEmpty()) return ItemStack.EMPTY;
         UnificationEntry unificationEntry = getUnificationEntry(itemStack);
-        if (unificationEntry == null || !stackUnificationItems.containsKey(unificationEntry) || !unificationEntry.orePrefix.isUnificationEnabled)
+        if (unificationEntry == null || !unificationEntry.orePrefix.isUnificationEnabled)
             return itemStack;
-        ArrayList<ItemAndMetadata> keys = stackUnificationItems.get(unificationEntry);
-        keys.sort(getSimpleItemStackComparator());
-        return keys.size() > 0 ? keys.get(0).toItemStack(itemStack.getCount()) : itemStack;
+        //lists are sorted in place, and can be accessed by material handlers running in parallel
+        synchronized (RegistrationBuffer.getRegistryLock()) {
+            ArrayList<ItemAndMetadata> keys = stackUnificationItems.get(unificationEntry);
+            if (keys == null) return itemStack;
+            keys.sort(getSimpleItemStackComparator());
+            return keys.size() > 0 ? keys.get(0).toItemStack(itemStack.getCount()) : itemStack;
+        }
     }
 
     public static ItemStack get(UnificationEntry unificationEntry) {
@@ -219,31 +246,37 @@ public class OreDictUnifier {
 
     public static ItemStack get(OrePrefix orePrefix, Material material, int stackSize) {
         UnificationEntry unificationEntry = new UnificationEntry(orePrefix, material);
-        if (!stackUnificationItems.containsKey(unificationEntry))
-            return ItemStack.EMPTY;
-        ArrayList<ItemAndMetadata> keys = stackUnificationItems.get(unificationEntry);
-        keys.sort(getSimpleItemStackComparator());
-        return keys.size() > 0 ? keys.get(0).toItemStack(stackSize) : ItemStack.EMPTY;
+        synchronized (RegistrationBuffer.getRegistryLock()) {
+            ArrayList<ItemAndMetadata> keys = stackUnificationItems.get(unificationEntry);
+            if (keys == null) return ItemStack.EMPTY;
+            keys.sort(getSimpleItemStackComparator());
+            return keys.size() > 0 ? keys.get(0).toItemStack(stackSize) : ItemStack.EMPTY;
+        }
     }
 
     public static ItemStack get(String oreDictName) {
-        List<ItemStack> itemStacks = oreDictNameStacks.get(oreDictName);
-        itemStacks.sort(getItemStackComparator());
-        return itemStacks.size() > 0 ? itemStacks.get(0).copy() : ItemStack.EMPTY;
+        synchronized (RegistrationBuffer.getRegistryLock()) {
+            List<ItemStack> itemStacks = oreDictNameStacks.get(oreDictName);
+            itemStacks.sort(getItemStackComparator());
+            return itemStacks.size() > 0 ? itemStacks.get(0).copy() : ItemStack.EMPTY;
+        }
     }
 
     public static List<Entry<ItemStack, ItemMaterialInfo>> getAllItemInfos() {
-        return materialUnificationInfo.entrySet().stream()
-            .map(entry -> new SimpleEntry<>(entry.getKey().toItemStack(), entry.getValue()))
-            .collect(Collectors.toList());
+        synchronized (RegistrationBuffer.getRegistryLock()) {
+            return materialUnificationInfo.entrySet().stream()
+                .map(entry -> new SimpleEntry<>(entry.getKey().toItemStack(), entry.getValue()))
+                .collect(Collectors.toList());
+        }
     }
 
     public static List<ItemStack> getAll(UnificationEntry unificationEntry) {
-        if (!stackUnificationItems.containsKey(unificationEntry))
-            return Collections.emptyList();
-        ArrayList<ItemAndMetadata> keys = stackUnificationItems.get(unificationEntry);
-        keys.sort(getSimpleItemStackComparator());
-        return keys.stream().map(ItemAndMetadata::toItemStack).collect(Collectors.toList());
+        synchronized (RegistrationBuffer.getRegistryLock()) {
+            ArrayList<ItemAndMetadata> keys = stackUnificationItems.get(unificationEntry);
+            if (keys == null) return Collections.emptyList();
+            keys.sort(getSimpleItemStackComparator());
+            return keys.stream().map(ItemAndMetadata::toItemStack).collect(Collectors.toList());
+        }
     }
 
     public static ItemStack getDust(DustMaterial material, long materialAmount) {
@@ -0,0 +1,194 @@
+package gregtech.api.unification.ore;
+
+import gregtech.api.GTValues;
+import gregtech.api.recipes.CountableIngredient;
+import gregtech.api.recipes.Recipe;
+import gregtech.api.recipes.Recipe.ChanceEntry;
+import gregtech.api.recipes.RecipeMap;
+import gregtech.api.recipes.RecipeMapSnapshot;
+import gregtech.api.unification.OreDictUnifier;
+import gregtech.api.unification.stack.ItemMaterialInfo;
+import gregtech.api.unification.stack.MaterialStack;
+import gregtech.api.util.GTLog;
+import gregtech.common.ConfigHolder;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.FurnaceRecipes;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.item.crafting.Ingredient;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+import net.minecraftforge.oredict.OreDictionary;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+
+/**
+ * Startup self-check verifying that parallel material handlers produce the same results as sequential ones.
+ * <p>
+ * Handlers register into global registries, so both modes can't be run in a single startup. Instead,
+ * every startup writes recipe maps, crafting and smelting recipes, ore dictionary and material info
+ * contents into a file named after current mode, and compares them with the file written by the other mode,
+ * if it exists. To run the check, start the game once with each value of {@link ConfigHolder#parallelMaterialHandlers}
+ * without changing anything else in between.
+ */
+public class MaterialHandlerEquivalenceCheck {
+
+    private static final int MAX_LOGGED_DIFFERENCES = 20;
+
+    /**
+     * Dumps registry contents for current material handler mode and compares them with other mode.
+     * Should be called once loading is complete, before recipe snapshot is released
+     */
+    public static void run() {
+        if (RecipeMapSnapshot.isRestored()) {
+            GTLog.logger.warn("Skipping material handler equivalence check, recipe maps were restored from recipe snapshot");
+            return;
+        }
+        Path checkDir = Loader.instance().getConfigDir().toPath().resolve(GTValues.MODID);
+        Path currentPath = checkDir.resolve(getFileName(ConfigHolder.parallelMaterialHandlers));
+        Path otherPath = checkDir.resolve(getFileName(!ConfigHolder.parallelMaterialHandlers));
+        List<String> currentLines = describeRegistries();
+        try {
+            Files.createDirectories(checkDir);
+            Files.write(currentPath, currentLines, StandardCharsets.UTF_8);
+            if (!Files.exists(otherPath)) {
+                GTLog.logger.info("Saved material handler results to {}, restart with parallelMaterialHandlers set to {} to compare them",
+                    currentPath, !ConfigHolder.parallelMaterialHandlers);
+                return;
+            }
+            List<String> otherLines = Files.readAllLines(otherPath, StandardCharsets.UTF_8);
+            compare(currentLines, otherLines);
+        } catch (IOException exception) {
+            GTLog.logger.error("Failed to run material handler equivalence check in {}", checkDir, exception);
+        }
+    }
+
+    private static String getFileName(boolean parallelMaterialHandlers) {
+        return parallelMaterialHandlers ? "material_handlers_parallel.txt" : "material_handlers_sequential.txt";
+    }
+
+    private static void compare(List<String> currentLines, List<String> otherLines) {
+        //first line describes mod list, results of different setups aren't comparable
+        if (otherLines.isEmpty() || !currentLines.get(0).equals(otherLines.get(0))) {
+            GTLog.logger.warn("Skipping material handler equivalence check, results of other mode were saved with different mod list");
+            return;
+        }
+        Set<String> currentSet = new HashSet<>(currentLines);
+        Set<String> otherSet = new HashSet<>(otherLines);
+        List<String> missingLines = otherLines.stream().filter(line -> !currentSet.contains(line)).collect(Collectors.toList());
+        List<String> extraLines = currentLines.stream().filter(line -> !otherSet.contains(line)).collect(Collectors.toList());
+        if (missingLines.isEmpty() && extraLines.isEmpty()) {
+            GTLog.logger.info("Material handler equivalence check passed, {} entries are the same in parallel and sequential mode",
+                currentLines.size() - 1);
+            return;
+        }
+        String currentMode = ConfigHolder.parallelMaterialHandlers ? "parallel" : "sequential";
+        GTLog.logger.error("Material handler equivalence check failed, {} entries are missing and {} are extra in {} mode",
+            missingLines.size(), extraLines.size(), currentMode);
+        missingLines.stream().limit(MAX_LOGGED_DIFFERENCES).forEach(line -> GTLog.logger.error("Missing: {}", line));
+        extraLines.stream().limit(MAX_LOGGED_DIFFERENCES).forEach(line -> GTLog.logger.error("Extra: {}", line));
+    }
+
+    private static List<String> describeRegistries() {
+        List<String> lines = new ArrayList<>();
+        for (RecipeMap<?> recipeMap : RecipeMap.getRecipeMaps()) {
+            for (Recipe recipe : recipeMap.getRecipeList()) {
+                lines.add("recipe " + recipeMap.getUnlocalizedName() + " " + describeRecipe(recipe));
+            }
+        }
+        for (IRecipe recipe : ForgeRegistries.RECIPES.getValuesCollection()) {
+            String ingredients = recipe.getIngredients().stream()
+                .map(MaterialHandlerEquivalenceCheck::describeIngredient)
+                .collect(Collectors.joining(", "));
+            lines.add("crafting " + recipe.getRegistryName() + " [" + ingredients + "] -> " + describeStack(recipe.getRecipeOutput()));
+        }
+        for (Entry<ItemStack, ItemStack> smeltingEntry : FurnaceRecipes.instance().getSmeltingList().entrySet()) {
+            lines.add("smelting " + describeStack(smeltingEntry.getKey()) + " -> " + describeStack(smeltingEntry.getValue()));
+        }
+        for (String oreName : OreDictionary.getOreNames()) {
+            for (ItemStack itemStack : OreDictionary.getOres(oreName, false)) {
+                lines.add("oredict " + oreName + " " + describeStack(itemStack));
+            }
+        }
+        for (Entry<ItemStack, ItemMaterialInfo> infoEntry : OreDictUnifier.getAllItemInfos()) {
+            lines.add("materialinfo " + describeStack(infoEntry.getKey()) + " " + describeMaterialInfo(infoEntry.getValue()));
+        }
+        //registries are partly backed by hash maps, so only compare contents and not their order
+        Collections.sort(lines);
+        lines.add(0, "mods " + Loader.instance().getActiveModList().stream()
+            .map(modContainer -> modContainer.getModId() + "@" + modContainer.getVersion())
+            .collect(Collectors.joining(", ")));
+        return lines;
+    }
+
+    private static String describeRecipe(Recipe recipe) {
+        StringBuilder builder = new StringBuilder("[");
+        builder.append(recipe.getInputs().stream()
+            .map(MaterialHandlerEquivalenceCheck::describeCountableIngredient)
+            .collect(Collectors.joining(", ")));
+        builder.append("] [").append(describeFluids(recipe.getFluidInputs()));
+        builder.append("] -> [").append(recipe.getOutputs().stream()
+            .map(MaterialHandlerEquivalenceCheck::describeStack)
+            .collect(Collectors.joining(", ")));
+        builder.append("] [").append(describeFluids(recipe.getFluidOutputs()));
+        builder.append("] [");
+        for (ChanceEntry chanceEntry : recipe.getChancedOutputs()) {
+            builder.append(describeStack(chanceEntry.getItemStack())).append(" ")
+                .append(chanceEntry.getChance()).append("+").append(chanceEntry.getBoostPerTier()).append(", ");
+        }
+        builder.append("] ").append(recipe.getEUt()).append("EU/t ").append(recipe.getDuration()).append("t");
+        for (String propertyKey : new TreeSet<>(recipe.getPropertyKeys())) {
+            builder.append(" ").append(propertyKey).append("=").append(recipe.getProperty(propertyKey));
+        }
+        if (recipe.isHidden()) {
+            builder.append(" hidden");
+        }
+        return builder.toString();
+    }
+
+    private static String describeCountableIngredient(CountableIngredient countableIngredient) {
+        if (countableIngredient.getOreDictName() != null) {
+            return "ore:" + countableIngredient.getOreDictName() + "*" + countableIngredient.getCount();
+        }
+        return describeIngredient(countableIngredient.getIngredient()) + "*" + countableIngredient.getCount();
+    }
+
+    private static String describeIngredient(Ingredient ingredient) {
+        return "(" + Arrays.stream(ingredient.getMatchingStacks())
+            .map(MaterialHandlerEquivalenceCheck::describeStack)
+            .collect(Collectors.joining("|")) + ")";
+    }
+
+    private static String describeStack(ItemStack itemStack) {
+        if (itemStack.isEmpty()) {
+            return "empty";
+        }
+        String description = itemStack.getItem().getRegistryName() + "@" + itemStack.getItemDamage() + "*" + itemStack.getCount();
+        return itemStack.getTagCompound() == null ? description : description + itemStack.getTagCompound();
+    }
+
+    private static String describeFluids(List<FluidStack> fluidStacks) {
+        return fluidStacks.stream()
+            .map(fluidStack -> fluidStack.getFluid().getName() + "*" + fluidStack.amount +
+                (fluidStack.tag == null ? "" : fluidStack.tag.toString()))
+            .collect(Collectors.joining(", "));
+    }
+
+    private static String describeMaterialInfo(ItemMaterialInfo materialInfo) {
+        StringBuilder builder = new StringBuilder(describeMaterialStack(materialInfo.material));
+        for (MaterialStack materialStack : materialInfo.additionalComponents) {
+            builder.append(", ").append(describeMaterialStack(materialStack));
+        }
+        return builder.toString();
+    }
+
+    private static String describeMaterialStack(MaterialStack materialStack) {
+        return materialStack.material + "*" + materialStack.amount;
+    }
+}
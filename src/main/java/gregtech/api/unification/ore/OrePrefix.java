@@ -7,6 +7,8 @@ import gregtech.api.unification.material.Materials;
 import gregtech.api.unification.material.type.*;
 import gregtech.api.unification.stack.MaterialStack;
 import gregtech.api.util.GTUtility;
+import gregtech.api.util.RegistrationBuffer;
+import gregtech.common.ConfigHolder;
 import net.minecraft.client.resources.I18n;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
@@ -16,6 +18,7 @@ import javax.annotation.Nullable;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import static gregtech.api.GTValues.M;
 import static gregtech.api.unification.material.type.DustMaterial.MatFlags.*;
@@ -417,18 +420,54 @@ public enum OrePrefix {
         return currentMaterial.get();
     }
 
+    /**
+     * Runs handlers for every generated material in material registry order. If parallel material
+     * handlers are enabled in config, runs them in two phases instead: handlers compute recipes
+     * for each material on multiple threads with registrations buffered, then buffered registrations
+     * are performed on the calling thread in the same order as sequential run would perform them.
+     * Unlike sequential run, handlers don't see registrations made for other materials of this prefix,
+     * see {@link MaterialHandlerEquivalenceCheck} for verifying that results are still the same
+     */
     private void runGeneratedMaterialHandlers() {
-        currentProcessingPrefix.set(this);
-        for (Material registeredMaterial : generatedMaterials) {
-            currentMaterial.set(registeredMaterial);
-            for (IOreRegistrationHandler registrationHandler : oreProcessingHandlers) {
-                registrationHandler.processMaterial(this, registeredMaterial);
-            }
-            currentMaterial.set(null);
+        if (generatedMaterials.isEmpty() || oreProcessingHandlers.isEmpty()) {
+            generatedMaterials.clear();
+            return;
         }
+        List<Material> materials = new ArrayList<>(generatedMaterials);
+        materials.sort(Comparator.comparingInt(Material.MATERIAL_REGISTRY::getIDForObject));
         //clear generated materials for next pass
         generatedMaterials.clear();
-        currentProcessingPrefix.set(null);
+
+        if (!ConfigHolder.parallelMaterialHandlers) {
+            for (Material material : materials) {
+                runWithCurrentMaterial(material, () -> runHandlers(material));
+            }
+            return;
+        }
+        List<List<Runnable>> registrations = materials.parallelStream()
+            .map(material -> RegistrationBuffer.runBuffered(() -> runWithCurrentMaterial(material, () -> runHandlers(material))))
+            .collect(Collectors.toList());
+        for (int i = 0; i < materials.size(); i++) {
+            List<Runnable> materialRegistrations = registrations.get(i);
+            runWithCurrentMaterial(materials.get(i), () -> materialRegistrations.forEach(Runnable::run));
+        }
+    }
+
+    private void runHandlers(Material material) {
+        for (IOreRegistrationHandler registrationHandler : oreProcessingHandlers) {
+            registrationHandler.processMaterial(this, material);
+        }
+    }
+
+    private void runWithCurrentMaterial(Material material, Runnable action) {
+        currentProcessingPrefix.set(this);
+        currentMaterial.set(material);
+        try {
+            action.run();
+        } finally {
+            currentMaterial.set(null);
+            currentProcessingPrefix.set(null);
+        }
     }
 
     @SideOnly(Side.CLIENT)
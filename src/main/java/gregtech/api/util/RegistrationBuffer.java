@@ -0,0 +1,69 @@
+package gregtech.api.util;
+
+import net.minecraft.item.crafting.Ingredient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Buffers recipe and ore dictionary registrations performed by a task,
+ * so they can be replayed later on the main thread in stable order.
+ * <p>
+ * Used to run material handlers on multiple threads: tasks only compute
+ * recipes, and everything touching global registries is performed afterwards
+ * in the same order regardless of how tasks were scheduled.
+ */
+public class RegistrationBuffer {
+
+    private static final ThreadLocal<List<Runnable>> bufferedRegistrations = new ThreadLocal<>();
+    private static final Object registryLock = new Object();
+
+    /**
+     * Queues given registration if called from task run by {@link #runBuffered(Runnable)}
+     *
+     * @return true if registration was queued and shouldn't be performed now
+     */
+    public static boolean defer(Runnable registration) {
+        List<Runnable> registrations = bufferedRegistrations.get();
+        if (registrations == null) {
+            return false;
+        }
+        registrations.add(registration);
+        return true;
+    }
+
+    /**
+     * Runs given task on current thread, queueing all registrations it performs
+     *
+     * @return registrations performed by task, in order they were performed
+     */
+    public static List<Runnable> runBuffered(Runnable task) {
+        List<Runnable> registrations = new ArrayList<>();
+        bufferedRegistrations.set(registrations);
+        try {
+            task.run();
+        } finally {
+            bufferedRegistrations.remove();
+        }
+        return registrations;
+    }
+
+    /**
+     * Lock guarding shared registries accessed by material handlers running in parallel:
+     * ore dictionary and its unification caches, furnace recipes and ingredient instance set
+     */
+    public static Object getRegistryLock() {
+        return registryLock;
+    }
+
+    /**
+     * Creates ingredient under registry lock. Ingredient constructors register every instance
+     * in forge set which is not thread-safe, and ore ingredients can add ore dictionary entries
+     */
+    public static <T extends Ingredient> T createIngredient(Supplier<T> ingredientFactory) {
+        synchronized (registryLock) {
+            return ingredientFactory.get();
+        }
+    }
+}
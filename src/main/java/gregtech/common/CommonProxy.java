@@ -4,6 +4,7 @@ import gregtech.api.GTValues;
 import gregtech.api.block.machines.MachineItemBlock;
 import gregtech.api.enchants.EnchantmentEnderDamage;
 import gregtech.api.items.metaitem.MetaItem;
+import gregtech.api.recipes.RecipeMapSnapshot;
 import gregtech.api.unification.material.type.DustMaterial;
 import gregtech.api.unification.material.type.Material;
 import gregtech.api.unification.ore.OrePrefix;
@@ -137,6 +138,12 @@ public class CommonProxy {
             .forEach(registry::register);
     }
 
+    //this is called first, so recipe maps are restored from snapshot before anyone registers recipes
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public static void restoreRecipeSnapshot(RegistryEvent.Register<IRecipe> event) {
+        RecipeMapSnapshot.tryRestore();
+    }
+
     //this is called with normal priority, so most mods working with
     //ore dictionary and recipes will get recipes accessible in time
     @SubscribeEvent
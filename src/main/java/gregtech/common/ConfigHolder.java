@@ -45,6 +45,49 @@ public class ConfigHolder {
     @Config.RequiresWorldRestart
     public static boolean insufficientEnergySupplyWipesRecipeProgress = false;
 
+    @Config.RangeInt(min = 0)
+    @Config.Comment("Maximum amount of recipe search results cached per recipe map. " +
+        "Machines with identical inputs reuse cached results instead of searching again. 0 disables caching. Default: 256")
+    public static int recipeCacheSize = 256;
+
+    @Config.Comment("Unsafe, not verified to produce the same results as sequential handlers yet. " +
+        "Whether material handlers should compute recipes on multiple threads during startup. " +
+        "Registrations are deferred until handlers finish, so handlers don't see ore dictionary entries and material infos " +
+        "registered by handlers of earlier materials, and may generate different recipes. " +
+        "Compare results of both modes with runStartupSelfChecks before relying on it. " +
+        "Handlers added by other mods must be thread-safe. Default: false")
+    @Config.RequiresMcRestart
+    public static boolean parallelMaterialHandlers = false;
+
+    @Config.Comment("Whether to run self-checks of recipe search and material handlers once loading is complete and log their results. " +
+        "Slows down startup, only meant for debugging. Default: false")
+    @Config.RequiresMcRestart
+    public static boolean runStartupSelfChecks = false;
+
+    @Config.Comment("Whether to save recipe map contents to a snapshot file and restore them from it on next startup instead of generating recipes. " +
+        "Snapshot is only used if mod list, GregTech config and scripts didn't change. Disable if configs of other mods affect GregTech recipes. Default: false")
+    @Config.RequiresMcRestart
+    public static boolean useRecipeSnapshot = false;
+
+    @Config.Comment("Whether energy offered to cables should be collected and dispatched once per cable network at the end of the tick. " +
+        "Distribution order is deterministic, and machines receive at most their input amperage per tick from all producers combined. Default: false")
+    public static boolean batchedEnergyDispatch = false;
+
+    @Config.RangeInt(min = 0)
+    @Config.Comment("Energy networks with at least this many cables compute energy routes on background thread. " +
+        "Cables keep using previous routes until new ones are ready, so changes in large networks don't cause lag spikes. 0 disables background computation. Default: 512")
+    public static int asyncEnergyRouteMinCables = 512;
+
+    @Config.RangeInt(min = 1)
+    @Config.Comment("Maximum amount of recipe copies multiblocks can process in parallel in single cycle. " +
+        "Amount of parallel recipes is also limited by available inputs, output space and energy input. 1 disables parallel processing. Default: 1")
+    public static int multiblockParallelLimit = 1;
+
+    @Config.RangeInt(min = 1)
+    @Config.Comment("Maximum amount of inventory slots each inventory pipe network scans for changes per tick. " +
+        "Inventories are scanned in turns, each at most once per 20 ticks, and inventories which reported a change are rescanned on the next tick regardless of this limit. Default: 1024")
+    public static int inventoryNetSlotScanBudget = 1024;
+
     @Config.Comment("Whether to use modPriorities setting in config for prioritizing ore dictionary item registrations. " +
         "By default, GTCE will sort ore dictionary registrations alphabetically comparing their owner ModIDs.")
     public static boolean useCustomModPriorities = false;
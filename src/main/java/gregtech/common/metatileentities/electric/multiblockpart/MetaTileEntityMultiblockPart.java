@@ -128,6 +128,29 @@ public abstract class MetaTileEntityMultiblockPart extends MetaTileEntity implem
         }
     }
 
+    @Override
+    public void notifyInventoryChanged(boolean isExport) {
+        super.notifyInventoryChanged(isExport);
+        //contents of parts are inventories of controller, so it should be notified too
+        if (getWorld() != null && !getWorld().isRemote) {
+            MultiblockControllerBase controller = getController();
+            if (controller != null) {
+                controller.notifyInventoryChanged(isExport);
+            }
+        }
+    }
+
+    @Override
+    public void notifyEnergyReceived() {
+        super.notifyEnergyReceived();
+        if (getWorld() != null && !getWorld().isRemote) {
+            MultiblockControllerBase controller = getController();
+            if (controller != null) {
+                controller.notifyEnergyReceived();
+            }
+        }
+    }
+
     @Override
     public void onRemoval() {
         super.onRemoval();
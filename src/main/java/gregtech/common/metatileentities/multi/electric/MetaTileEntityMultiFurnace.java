@@ -12,6 +12,7 @@ import gregtech.api.multiblock.FactoryBlockPattern;
 import gregtech.api.multiblock.PatternMatchContext;
 import gregtech.api.recipes.CountableIngredient;
 import gregtech.api.recipes.Recipe;
+import gregtech.api.recipes.RecipeInputSnapshot;
 import gregtech.api.recipes.RecipeMaps;
 import gregtech.api.render.ICubeRenderer;
 import gregtech.api.render.Textures;
@@ -26,6 +27,7 @@ import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraftforge.items.IItemHandlerModifiable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -98,10 +100,20 @@ public class MetaTileEntityMultiFurnace extends RecipeMapMultiblockController {
 
     protected class MultiFurnaceWorkable extends MultiblockRecipeLogic {
 
+        //reused for searching smelting recipe of every single input stack
+        private final List<ItemStack> singleStackInput = Arrays.asList(ItemStack.EMPTY);
+        private final RecipeInputSnapshot singleStackSnapshot = new RecipeInputSnapshot(singleStackInput, Collections.emptyList());
+
         public MultiFurnaceWorkable(RecipeMapMultiblockController tileEntity) {
             super(tileEntity);
         }
 
+        @Override
+        protected int getParallelLimit() {
+            //recipe is already built from all smeltable inputs up to coil limit
+            return 1;
+        }
+
         @Override
         protected void trySearchNewRecipe() {
             long maxVoltage = getMaxVoltage();
@@ -120,7 +132,7 @@ public class MetaTileEntityMultiFurnace extends RecipeMapMultiblockController {
                 if (currentRecipe != null) {
                     this.previousRecipe = currentRecipe;
                 }
-            } else if (previousRecipe != null && previousRecipe.matches(false, importInventory, importFluids)) {
+            } else if (previousRecipe != null && previousRecipe.matches(false, inputSnapshot.bind(importInventory, importFluids))) {
                 //if previous recipe still matches inputs, try to use it
                 currentRecipe = previousRecipe;
             }
@@ -139,8 +151,9 @@ public class MetaTileEntityMultiFurnace extends RecipeMapMultiblockController {
                 ItemStack stackInSlot = inputs.getStackInSlot(index);
                 if (stackInSlot.isEmpty())
                     continue;
-                Recipe matchingRecipe = recipeMap.findRecipe(maxVoltage,
-                    Collections.singletonList(stackInSlot), Collections.emptyList(), 0);
+                singleStackInput.set(0, stackInSlot);
+                //single stack searches would only flood shared recipe cache with entries for every stack size
+                Recipe matchingRecipe = recipeMap.findRecipe(maxVoltage, singleStackSnapshot, 0, false);
                 CountableIngredient inputIngredient = matchingRecipe == null ? null : matchingRecipe.getInputs().get(0);
                 if (inputIngredient != null && (maxItemsLimit - currentItemsEngaged) >= inputIngredient.getCount()) {
                     ItemStack outputStack = matchingRecipe.getOutputs().get(0).copy();
@@ -157,6 +170,7 @@ public class MetaTileEntityMultiFurnace extends RecipeMapMultiblockController {
 
                 if (currentItemsEngaged >= maxItemsLimit) break;
             }
+            singleStackInput.set(0, ItemStack.EMPTY);
             return recipeInputs.isEmpty() ? null : recipeMap.recipeBuilder()
                 .inputsIngredients(recipeInputs)
                 .outputs(recipeOutputs)
@@ -0,0 +1,43 @@
+package gregtech.common.pipelike.cable.net;
+
+import gregtech.api.capability.IEnergyContainer;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Energy container adjacent to active cable of energy net, which can receive energy from it,
+ * or adjacent producer offering energy to cable in batched mode.
+ * Endpoints are cached, so they keep tile entity and chunk of the container
+ * to check if container is still valid without looking it up in the world
+ */
+public class EnergyEndpoint {
+
+    public final IEnergyContainer energyContainer;
+    public final EnumFacing side;
+    private final TileEntity tileEntity;
+    private final Chunk chunk;
+    //amperes received during dispatch at the given tick, limited by input amperage of container
+    private long amperesReceived;
+    private long receivedTick;
+
+    public EnergyEndpoint(IEnergyContainer energyContainer, EnumFacing side, TileEntity tileEntity, Chunk chunk) {
+        this.energyContainer = energyContainer;
+        this.side = side;
+        this.tileEntity = tileEntity;
+        this.chunk = chunk;
+    }
+
+    public boolean isValid() {
+        return !tileEntity.isInvalid() && chunk.isLoaded();
+    }
+
+    long getAmperesReceived(long tick) {
+        return receivedTick == tick ? amperesReceived : 0L;
+    }
+
+    void setAmperesReceived(long tick, long amperesReceived) {
+        this.receivedTick = tick;
+        this.amperesReceived = amperesReceived;
+    }
+}
@@ -1,25 +1,63 @@
 package gregtech.common.pipelike.cable.net;
 
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.set.TLongSet;
+import gregtech.api.capability.GregtechCapabilities;
+import gregtech.api.capability.IEnergyContainer;
 import gregtech.api.pipenet.Node;
 import gregtech.api.pipenet.PipeNet;
 import gregtech.api.pipenet.WorldPipeNet;
+import gregtech.api.util.GTLog;
 import gregtech.api.util.PerTickLongCounter;
+import gregtech.api.util.TaskScheduler;
+import gregtech.common.ConfigHolder;
 import gregtech.common.pipelike.cable.WireProperties;
+import gregtech.common.pipelike.cable.net.RoutePath.PathNode;
+import gregtech.common.pipelike.cable.tile.TileEntityCable;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.BlockPos.MutableBlockPos;
+import net.minecraft.world.World;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Stack;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class EnergyNet extends PipeNet<WireProperties> {
 
+    private static final Comparator<PathNode> PATH_NODE_COMPARATOR = Comparator
+        .comparingInt(PathNode::getTotalLoss)
+        .thenComparingInt(PathNode::getLength);
+    //when more node changes are recorded, all routes are invalidated instead
+    private static final int MAX_RECORDED_NODE_CHANGES = 1024;
+    //computes routes of large nets from topology snapshots, shared by nets of all worlds
+    private static final ExecutorService ROUTE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "GregTech Energy Routes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final PerTickLongCounter currentAmperageCounter = new PerTickLongCounter(0L);
     private final PerTickLongCounter currentMaxVoltageCounter = new PerTickLongCounter(0L);
 
+    //version is incremented on every change affecting routes
+    private long routesVersion;
+    //routes computed before this version are all invalid
+    private long invalidationVersion;
+    //positions of changed nodes, which only invalidate routes passing through them,
+    //for versions in range (routesVersion - changedNodes.size(), routesVersion]
+    private final TLongList changedNodes = new TLongArrayList();
+    //immutable copy of nodes used for background route computation, null if nodes changed since it was taken
+    private Map<BlockPos, Node<WireProperties>> topologySnapshot;
+
+    //offers made during current tick by each producer, dispatched together at the end of the tick
+    private final Map<IEnergyContainer, EnergyOffer> pendingOffers = new LinkedHashMap<>();
+    //energy containers adjacent to active nodes, dropped when neighbours of the node change
+    private final Map<BlockPos, List<EnergyEndpoint>> endpointsCache = new HashMap<>();
+
     protected EnergyNet(WorldPipeNet<WireProperties, EnergyNet> world) {
         super(world);
     }
@@ -40,47 +78,362 @@ public class EnergyNet extends PipeNet<WireProperties> {
         }
     }
 
+    /**
+     * Records energy offered by producer to the given cable of this net. All offers are dispatched
+     * together at the end of the tick, and energy actually sent is removed from producers then.
+     * Producer offering energy to multiple cables of this net is only considered once, and producer
+     * offering energy to multiple nets never sends more than its output amperage in total
+     */
+    public void offerEnergy(IEnergyContainer producer, BlockPos sourcePos, List<RoutePath> paths, long voltage, long amperage) {
+        if (pendingOffers.isEmpty()) {
+            TaskScheduler.scheduleTask(getWorldData(), () -> {
+                dispatchOffers();
+                return false;
+            });
+        }
+        ProducerBudget producerBudget = ((WorldENet) (Object) worldData).getProducerBudget(producer, amperage);
+        EnergyOffer energyOffer = pendingOffers.get(producer);
+        if (energyOffer == null || energyOffer.amperage < amperage) {
+            pendingOffers.put(producer, new EnergyOffer(producer, producerBudget, sourcePos, paths, voltage, amperage));
+        }
+    }
+
+    /**
+     * Dispatches all pending offers in order of their source positions.
+     * Each endpoint receives at most its input amperage from all offers combined
+     */
+    private void dispatchOffers() {
+        if (pendingOffers.isEmpty()) {
+            return;
+        }
+        List<EnergyOffer> energyOffers = new ArrayList<>(pendingOffers.values());
+        pendingOffers.clear();
+        if (!isValid()) {
+            return;
+        }
+        energyOffers.sort(Comparator.comparingLong(offer -> offer.sourcePos.toLong()));
+        long currentTick = getWorldData().getTotalWorldTime();
+        for (EnergyOffer energyOffer : energyOffers) {
+            long voltage = energyOffer.voltage;
+            //producer could have spent energy after offering it, or sent it to other nets
+            long amperage = Math.min(energyOffer.amperage, energyOffer.producerBudget.getAvailableAmperage(voltage));
+            if (amperage <= 0) continue;
+            long amperesUsed = 0L;
+            for (RoutePath routePath : energyOffer.paths) {
+                if (routePath.totalLoss >= voltage) {
+                    continue; //do not emit if loss is too high
+                }
+                List<EnergyEndpoint> endpoints = getEndpoints(routePath.destination);
+                amperesUsed += dispatchToEndpoints(endpoints, currentTick, voltage - routePath.totalLoss, amperage - amperesUsed);
+
+                if (voltage > routePath.minVoltage || amperesUsed > routePath.maxAmperage) {
+                    burnPaths(energyOffer.paths, voltage, amperage, amperesUsed);
+                    break; //break after burning all paths
+                }
+                if (amperesUsed == amperage) {
+                    break; //do not continue if all amperes are exhausted
+                }
+            }
+            if (amperesUsed > 0) {
+                energyOffer.producer.removeEnergy(amperesUsed * voltage);
+                energyOffer.producerBudget.onDispatched(amperesUsed, voltage);
+            }
+            incrementCurrentAmperage(amperage, voltage);
+        }
+    }
+
+    private static long dispatchToEndpoints(List<EnergyEndpoint> endpoints, long currentTick, long voltage, long amperage) {
+        long amperesUsed = 0L;
+        for (int i = 0; i < endpoints.size(); i++) {
+            EnergyEndpoint endpoint = endpoints.get(i);
+            if (!endpoint.energyContainer.inputsEnergy(endpoint.side)) continue;
+            long amperesReceived = endpoint.getAmperesReceived(currentTick);
+            long amperesToSend = Math.min(amperage - amperesUsed,
+                endpoint.energyContainer.getInputAmperage() - amperesReceived);
+            if (amperesToSend <= 0) continue;
+            long amperesAccepted = endpoint.energyContainer.acceptEnergyFromNetwork(endpoint.side, voltage, amperesToSend);
+            //endpoint which didn't accept everything won't accept anything more this tick
+            endpoint.setAmperesReceived(currentTick, amperesAccepted < amperesToSend ?
+                Long.MAX_VALUE : amperesReceived + amperesAccepted);
+            amperesUsed += amperesAccepted;
+            if (amperesUsed == amperage) break;
+        }
+        return amperesUsed;
+    }
+
+    private void burnPaths(List<RoutePath> paths, long voltage, long amperage, long lastAmperage) {
+        for (RoutePath pathToBurn : paths) {
+            if (voltage > pathToBurn.minVoltage || amperage > pathToBurn.maxAmperage || lastAmperage > pathToBurn.maxAmperage) {
+                pathToBurn.burnCablesInPath(getWorldData(), voltage, Math.max(amperage, lastAmperage));
+            }
+        }
+    }
+
+    /**
+     * Returns energy containers adjacent to the given node, which can receive energy from it.
+     * Endpoints are cached until neighbours of the node change, so dispatching energy
+     * to them doesn't need any world lookups
+     */
+    public List<EnergyEndpoint> getEndpoints(BlockPos nodePos) {
+        List<EnergyEndpoint> endpoints = endpointsCache.get(nodePos);
+        if (endpoints != null && areEndpointsValid(endpoints)) {
+            return endpoints;
+        }
+        return resolveEndpoints(nodePos);
+    }
+
+    private static boolean areEndpointsValid(List<EnergyEndpoint> endpoints) {
+        for (int i = 0; i < endpoints.size(); i++) {
+            if (!endpoints.get(i).isValid()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<EnergyEndpoint> resolveEndpoints(BlockPos nodePos) {
+        this.endpointsCache.remove(nodePos);
+        Node<WireProperties> node = getNodeAt(nodePos);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        World world = getWorldData();
+        List<EnergyEndpoint> endpoints = new ArrayList<>();
+        boolean isComplete = true;
+        for (EnumFacing facing : EnumFacing.VALUES) {
+            if ((node.blockedConnections & 1 << facing.getIndex()) > 0) {
+                continue; //do not dispatch energy to blocked sides
+            }
+            BlockPos offsetPos = nodePos.offset(facing);
+            if (!world.isBlockLoaded(offsetPos)) {
+                //do not allow cables to load chunks, and look at this side again once it is loaded
+                isComplete = false;
+                continue;
+            }
+            TileEntity tileEntity = world.getTileEntity(offsetPos);
+            if (tileEntity == null || tileEntity instanceof TileEntityCable) {
+                continue; //do not emit into other cable tile entities
+            }
+            EnumFacing oppositeSide = facing.getOpposite();
+            IEnergyContainer energyContainer = tileEntity.getCapability(GregtechCapabilities.CAPABILITY_ENERGY_CONTAINER, oppositeSide);
+            if (energyContainer != null) {
+                endpoints.add(new EnergyEndpoint(energyContainer, oppositeSide, tileEntity, world.getChunkFromBlockCoords(offsetPos)));
+            }
+        }
+        if (isComplete) {
+            this.endpointsCache.put(nodePos, endpoints);
+        }
+        return endpoints;
+    }
+
+    @Override
+    public void onNeighbourUpdate(BlockPos nodePos) {
+        this.endpointsCache.remove(nodePos);
+    }
+
+    public long getRoutesVersion() {
+        return routesVersion;
+    }
+
+    /**
+     * Checks if routes computed at given version are still valid, i.e.
+     * there were no changes which could affect them since then
+     *
+     * @param version    version of the net routes were computed at
+     * @param routeNodes positions of all nodes of routes, as returned by {@link BlockPos#toLong()}
+     */
+    public boolean areRoutesValid(long version, TLongSet routeNodes) {
+        long firstRecordedVersion = routesVersion - changedNodes.size();
+        if (version < invalidationVersion || version < firstRecordedVersion) {
+            return false;
+        }
+        for (int i = (int) (version - firstRecordedVersion); i < changedNodes.size(); i++) {
+            if (routeNodes.contains(changedNodes.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void invalidateAllRoutes() {
+        this.topologySnapshot = null;
+        this.routesVersion++;
+        this.invalidationVersion = routesVersion;
+        this.changedNodes.clear();
+    }
+
+    private void invalidateRoutesThrough(BlockPos nodePos) {
+        if (changedNodes.size() >= MAX_RECORDED_NODE_CHANGES) {
+            invalidateAllRoutes();
+            return;
+        }
+        this.topologySnapshot = null;
+        this.changedNodes.add(nodePos.toLong());
+        this.routesVersion++;
+    }
+
+    @Override
+    protected void addNode(BlockPos nodePos, Node<WireProperties> node) {
+        super.addNode(nodePos, node);
+        this.topologySnapshot = null;
+        //cable connected only on one side cannot be in the middle of any route,
+        //so it can only affect routes if it is destination itself
+        if (node.isActive || getConnectedSidesCount(nodePos, node) > 1) {
+            invalidateAllRoutes();
+        }
+    }
+
+    private int getConnectedSidesCount(BlockPos nodePos, Node<WireProperties> node) {
+        int connectedSides = 0;
+        for (EnumFacing facing : EnumFacing.VALUES) {
+            Node<WireProperties> offsetNode = getNodeAt(nodePos.offset(facing));
+            if (offsetNode != null && canNodesConnect(node, facing, offsetNode, this)) {
+                connectedSides++;
+            }
+        }
+        return connectedSides;
+    }
+
+    @Override
+    protected Node<WireProperties> removeNodeWithoutRebuilding(BlockPos nodePos) {
+        invalidateRoutesThrough(nodePos);
+        this.endpointsCache.remove(nodePos);
+        return super.removeNodeWithoutRebuilding(nodePos);
+    }
+
+    @Override
+    protected void transferNodeData(Map<BlockPos, Node<WireProperties>> transferredNodes, PipeNet<WireProperties> parentNet) {
+        super.transferNodeData(transferredNodes, parentNet);
+        invalidateAllRoutes();
+        Map<BlockPos, List<EnergyEndpoint>> parentEndpointsCache = ((EnergyNet) parentNet).endpointsCache;
+        for (BlockPos nodePos : transferredNodes.keySet()) {
+            List<EnergyEndpoint> endpoints = parentEndpointsCache.remove(nodePos);
+            if (endpoints != null) {
+                this.endpointsCache.put(nodePos, endpoints);
+            }
+        }
+    }
+
+    @Override
+    protected void updateBlockedConnections(BlockPos nodePos, EnumFacing facing, boolean isBlocked) {
+        super.updateBlockedConnections(nodePos, facing, isBlocked);
+        this.endpointsCache.remove(nodePos);
+        //blocked connection can only break routes going through it, while unblocked one can create shorter routes
+        if (isBlocked) {
+            invalidateRoutesThrough(nodePos);
+        } else {
+            invalidateAllRoutes();
+        }
+    }
+
+    @Override
+    protected void updateMark(BlockPos nodePos, int newMark) {
+        super.updateMark(nodePos, newMark);
+        invalidateAllRoutes();
+    }
+
+    @Override
+    public boolean markNodeAsActive(BlockPos nodePos, boolean isActive) {
+        if (!super.markNodeAsActive(nodePos, isActive)) {
+            return false;
+        }
+        //new destination needs new route, while inactive one only invalidates routes ending at it
+        if (isActive) {
+            invalidateAllRoutes();
+        } else {
+            invalidateRoutesThrough(nodePos);
+        }
+        return true;
+    }
+
+    /**
+     * @return true if routes of this net are large enough to be computed on background thread
+     */
+    public boolean shouldComputeRoutesAsync() {
+        int minCables = ConfigHolder.asyncEnergyRouteMinCables;
+        return minCables > 0 && getAllNodes().size() >= minCables;
+    }
+
+    /**
+     * Computes paths from the given cable on background thread, using snapshot of current nodes of the net.
+     * Paths are computed as of version returned by {@link #getRoutesVersion()} at the moment of this call
+     *
+     * @return future completed with computed paths, or with null if computation failed
+     */
+    public CompletableFuture<List<RoutePath>> computePatchesAsync(BlockPos startPos) {
+        Map<BlockPos, Node<WireProperties>> nodes = getTopologySnapshot();
+        return CompletableFuture.supplyAsync(() -> computePatches(nodes, startPos), ROUTE_EXECUTOR)
+            .exceptionally(throwable -> {
+                GTLog.logger.error("Failed to compute energy routes from {}", startPos, throwable);
+                return null;
+            });
+    }
+
+    private Map<BlockPos, Node<WireProperties>> getTopologySnapshot() {
+        if (topologySnapshot == null) {
+            HashMap<BlockPos, Node<WireProperties>> nodes = new HashMap<>();
+            for (Map.Entry<BlockPos, Node<WireProperties>> entry : getAllNodes().entrySet()) {
+                Node<WireProperties> node = entry.getValue();
+                nodes.put(entry.getKey(), new Node<>(node.data, node.blockedConnections, node.mark, node.isActive));
+            }
+            this.topologySnapshot = Collections.unmodifiableMap(nodes);
+        }
+        return topologySnapshot;
+    }
+
+    /**
+     * Computes minimum loss paths from the given cable to all active cables reachable from it,
+     * ordered by their loss. Paths with equal loss are resolved in favor of shorter ones.
+     * Paths share nodes of their common prefix, so amount of allocated nodes
+     * is bounded by amount of cable connections in the net
+     */
     public List<RoutePath> computePatches(BlockPos startPos) {
+        return computePatches(getAllNodes(), startPos);
+    }
+
+    //reads nodes only from the given map, so it can be called on background thread with topology snapshot
+    private List<RoutePath> computePatches(Map<BlockPos, Node<WireProperties>> nodes, BlockPos startPos) {
+        Node<WireProperties> startNode = nodes.get(startPos);
+        if (startNode == null) {
+            return Collections.emptyList();
+        }
         ArrayList<RoutePath> readyPaths = new ArrayList<>();
-        RoutePath currentPath = new RoutePath();
-        Node<WireProperties> firstNode = getNodeAt(startPos);
-        currentPath.path.put(startPos, firstNode.data);
-        readyPaths.add(currentPath.cloneAndCompute(startPos));
-        HashSet<BlockPos> observedSet = new HashSet<>();
-        observedSet.add(startPos);
-        MutableBlockPos currentPos = new MutableBlockPos(startPos);
-        Stack<EnumFacing> moveStack = new Stack<>();
-        main:
-        while (true) {
+        HashMap<BlockPos, PathNode> bestPathNodes = new HashMap<>();
+        HashSet<BlockPos> settledSet = new HashSet<>();
+        PriorityQueue<PathNode> pathQueue = new PriorityQueue<>(PATH_NODE_COMPARATOR);
+        PathNode startPathNode = new PathNode(startPos, startNode.data, null);
+        bestPathNodes.put(startPos, startPathNode);
+        pathQueue.add(startPathNode);
+        while (!pathQueue.isEmpty()) {
+            PathNode pathNode = pathQueue.poll();
+            BlockPos nodePos = pathNode.getBlockPos();
+            if (!settledSet.add(nodePos)) {
+                continue; //node was already reached by better path
+            }
+            Node<WireProperties> node = nodes.get(nodePos);
+            if (pathNode == startPathNode || node.isActive) {
+                readyPaths.add(new RoutePath(nodePos, pathNode));
+            }
             for (EnumFacing facing : EnumFacing.VALUES) {
-                currentPos.move(facing);
-                Node<WireProperties> secondNode = getNodeAt(currentPos);
-                if (secondNode != null && canNodesConnect(firstNode, facing, secondNode, this) && !observedSet.contains(currentPos)) {
-                    BlockPos immutablePos = currentPos.toImmutable();
-                    observedSet.add(immutablePos);
-                    firstNode = secondNode;
-                    moveStack.push(facing.getOpposite());
-                    currentPath.path.put(immutablePos, getNodeAt(immutablePos).data);
-                    if (secondNode.isActive) {
-                        //if we are on active node, this is end of our path
-                        RoutePath finalizedPath = currentPath.cloneAndCompute(immutablePos);
-                        readyPaths.add(finalizedPath);
-                    }
-                    continue main;
-                } else {
-                    currentPos.move(facing.getOpposite());
+                BlockPos offsetPos = nodePos.offset(facing);
+                Node<WireProperties> offsetNode = nodes.get(offsetPos);
+                if (offsetNode == null || settledSet.contains(offsetPos) ||
+                    !canNodesConnect(node, facing, offsetNode, this)) {
+                    continue;
+                }
+                PathNode bestPathNode = bestPathNodes.get(offsetPos);
+                int totalLoss = pathNode.getTotalLoss() + offsetNode.data.lossPerBlock;
+                if (bestPathNode == null || totalLoss < bestPathNode.getTotalLoss() ||
+                    (totalLoss == bestPathNode.getTotalLoss() && pathNode.getLength() + 1 < bestPathNode.getLength())) {
+                    PathNode offsetPathNode = new PathNode(offsetPos, offsetNode.data, pathNode);
+                    bestPathNodes.put(offsetPos, offsetPathNode);
+                    pathQueue.add(offsetPathNode);
                 }
             }
-            if (!moveStack.isEmpty()) {
-                currentPos.move(moveStack.pop());
-                //also remove already visited block from path
-                currentPath.path.remove(currentPos);
-            } else break;
         }
         return readyPaths;
     }
 
-
     @Override
     protected void writeNodeData(WireProperties nodeData, NBTTagCompound tagCompound) {
         tagCompound.setInteger("voltage", nodeData.voltage);
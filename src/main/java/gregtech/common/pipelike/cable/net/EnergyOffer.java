@@ -0,0 +1,28 @@
+package gregtech.common.pipelike.cable.net;
+
+import gregtech.api.capability.IEnergyContainer;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.List;
+
+/**
+ * Energy offered to energy net by single producer during current tick
+ */
+class EnergyOffer {
+
+    final IEnergyContainer producer;
+    final ProducerBudget producerBudget;
+    final BlockPos sourcePos;
+    final List<RoutePath> paths;
+    final long voltage;
+    final long amperage;
+
+    EnergyOffer(IEnergyContainer producer, ProducerBudget producerBudget, BlockPos sourcePos, List<RoutePath> paths, long voltage, long amperage) {
+        this.producer = producer;
+        this.producerBudget = producerBudget;
+        this.sourcePos = sourcePos;
+        this.paths = paths;
+        this.voltage = voltage;
+        this.amperage = amperage;
+    }
+}
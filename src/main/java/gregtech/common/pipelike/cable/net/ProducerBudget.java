@@ -0,0 +1,48 @@
+package gregtech.common.pipelike.cable.net;
+
+import gregtech.api.capability.IEnergyContainer;
+
+/**
+ * Amperes producer can still send to batched energy nets during current tick.
+ * Shared by all nets of the world, so producer offering energy to several nets
+ * never sends more than its output amperage and stored energy in total
+ */
+class ProducerBudget {
+
+    private final IEnergyContainer producer;
+    //energy stored by producer when it made its first offer this tick
+    private final long storedOnOffer;
+    private long amperage;
+    private long amperesDispatched;
+    private long energyDispatched;
+
+    ProducerBudget(IEnergyContainer producer, long amperage) {
+        this.producer = producer;
+        this.storedOnOffer = producer.getEnergyStored();
+        long outputAmperage = producer.getOutputAmperage();
+        //containers not reporting output amperage are only limited by their offers
+        this.amperage = outputAmperage > 0 ? Math.min(amperage, outputAmperage) : amperage;
+    }
+
+    /**
+     * Producer passes only amperes it has left to every offer,
+     * so later offers can only lower amperage available for this tick
+     */
+    void limitAmperage(long amperage) {
+        this.amperage = Math.min(this.amperage, amperesDispatched + amperage);
+    }
+
+    long getAvailableAmperage(long voltage) {
+        long energyStored = producer.getEnergyStored();
+        //energy producer spent by itself after offering, e.g. emitting directly into adjacent machines
+        long energySpentDirectly = Math.max(0L, storedOnOffer - energyDispatched - energyStored);
+        long amperesSpentDirectly = (energySpentDirectly + voltage - 1) / voltage;
+        long availableAmperage = amperage - amperesDispatched - amperesSpentDirectly;
+        return Math.max(0L, Math.min(availableAmperage, energyStored / voltage));
+    }
+
+    void onDispatched(long amperes, long voltage) {
+        this.amperesDispatched += amperes;
+        this.energyDispatched += amperes * voltage;
+    }
+}
@@ -1,5 +1,7 @@
 package gregtech.common.pipelike.cable.net;
 
+import gnu.trove.set.TLongSet;
+import gregtech.api.pipenet.Node;
 import gregtech.common.pipelike.cable.WireProperties;
 import gregtech.common.pipelike.cable.tile.TileEntityCable;
 import net.minecraft.init.Blocks;
@@ -9,32 +11,59 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 
-import java.util.HashMap;
-
+/**
+ * Path from the source cable to the destination cable of energy net.
+ * <p>
+ * Cables of the path are stored as linked chain of {@link PathNode} going from destination
+ * back to the source. Paths computed from the same source share nodes of their common prefix,
+ * so memory used by all paths of the source is linear in amount of cables in the net.
+ */
 public class RoutePath {
 
-    public BlockPos destination;
-    public HashMap<BlockPos, WireProperties> path = new HashMap<>();
-    public int maxAmperage = Integer.MAX_VALUE;
-    public int minVoltage = Integer.MAX_VALUE;
-    public int totalLoss;
-
-    public RoutePath cloneAndCompute(BlockPos destination) {
-        RoutePath newPath = new RoutePath();
-        newPath.path = new HashMap<>(path);
-        newPath.destination = destination;
-        for (WireProperties wireProperties : path.values()) {
-            newPath.maxAmperage = Math.min(newPath.maxAmperage, wireProperties.amperage);
-            newPath.minVoltage = Math.min(newPath.minVoltage, wireProperties.voltage);
-            newPath.totalLoss += wireProperties.lossPerBlock;
+    public final BlockPos destination;
+    public final int maxAmperage;
+    public final int minVoltage;
+    public final int totalLoss;
+    private final PathNode lastNode;
+
+    public RoutePath(BlockPos destination, PathNode lastNode) {
+        this.destination = destination;
+        this.lastNode = lastNode;
+        this.maxAmperage = lastNode.maxAmperage;
+        this.minVoltage = lastNode.minVoltage;
+        this.totalLoss = lastNode.totalLoss;
+    }
+
+    /**
+     * Adds positions of all cables in this path to given set, as returned by {@link BlockPos#toLong()}
+     */
+    public void collectPathNodes(TLongSet nodePositions) {
+        for (PathNode pathNode = lastNode; pathNode != null; pathNode = pathNode.previous) {
+            //paths sharing this node also share all previous nodes, so they are already collected
+            if (!nodePositions.add(pathNode.blockPos.toLong())) break;
         }
-        return newPath;
+    }
+
+    /**
+     * Checks if all cables of this path are still present in the given net with the same properties.
+     * Outdated paths failing this check could emit energy through cables which were replaced since,
+     * or burn cables placed at their positions afterwards
+     */
+    public boolean isPresentIn(EnergyNet energyNet) {
+        for (PathNode pathNode = lastNode; pathNode != null; pathNode = pathNode.previous) {
+            Node<WireProperties> node = energyNet.getNodeAt(pathNode.blockPos);
+            if (node == null || !node.data.equals(pathNode.wireProperties)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public boolean burnCablesInPath(World world, long voltage, long amperage) {
-        for (BlockPos blockPos : path.keySet()) {
-            WireProperties wireProperties = path.get(blockPos);
+        for (PathNode pathNode = lastNode; pathNode != null; pathNode = pathNode.previous) {
+            WireProperties wireProperties = pathNode.wireProperties;
             if (voltage > wireProperties.voltage || amperage > wireProperties.amperage) {
+                BlockPos blockPos = pathNode.blockPos;
                 TileEntity tileEntity = world.getTileEntity(blockPos);
                 if (tileEntity instanceof TileEntityCable) {
                     world.setBlockToAir(blockPos);
@@ -51,4 +80,51 @@ public class RoutePath {
         return true;
     }
 
+    /**
+     * Single cable of the path, linked to the previous cable.
+     * Limits and loss of the whole path up to this cable are precomputed
+     */
+    public static final class PathNode {
+
+        private final BlockPos blockPos;
+        private final WireProperties wireProperties;
+        private final PathNode previous;
+        private final int maxAmperage;
+        private final int minVoltage;
+        private final int totalLoss;
+        private final int length;
+
+        public PathNode(BlockPos blockPos, WireProperties wireProperties, PathNode previous) {
+            this.blockPos = blockPos;
+            this.wireProperties = wireProperties;
+            this.previous = previous;
+            if (previous == null) {
+                this.maxAmperage = wireProperties.amperage;
+                this.minVoltage = wireProperties.voltage;
+                this.totalLoss = wireProperties.lossPerBlock;
+                this.length = 1;
+            } else {
+                this.maxAmperage = Math.min(previous.maxAmperage, wireProperties.amperage);
+                this.minVoltage = Math.min(previous.minVoltage, wireProperties.voltage);
+                this.totalLoss = previous.totalLoss + wireProperties.lossPerBlock;
+                this.length = previous.length + 1;
+            }
+        }
+
+        public BlockPos getBlockPos() {
+            return blockPos;
+        }
+
+        public int getTotalLoss() {
+            return totalLoss;
+        }
+
+        /**
+         * @return amount of cables in the path up to this node, including it
+         */
+        public int getLength() {
+            return length;
+        }
+    }
+
 }
@@ -1,13 +1,21 @@
 package gregtech.common.pipelike.cable.net;
 
+import gregtech.api.capability.IEnergyContainer;
 import gregtech.api.pipenet.WorldPipeNet;
 import gregtech.common.pipelike.cable.WireProperties;
 import net.minecraft.world.World;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 public class WorldENet extends WorldPipeNet<WireProperties, EnergyNet> {
 
     private static final String DATA_ID = "gregtech.e_net";
 
+    //amperes producers can still send to batched nets during current tick, shared by all nets of the world
+    private final Map<IEnergyContainer, ProducerBudget> producerBudgets = new IdentityHashMap<>();
+    private long producerBudgetsTick;
+
     public static WorldENet getWorldENet(World world) {
         WorldENet eNetWorldData = (WorldENet) world.loadData(WorldENet.class, DATA_ID);
         if (eNetWorldData == null) {
@@ -22,6 +30,27 @@ public class WorldENet extends WorldPipeNet<WireProperties, EnergyNet> {
         super(name);
     }
 
+    /**
+     * Returns budget of the given producer for current tick, creating it on first offer of the tick
+     *
+     * @param amperage amperes producer offers to the net
+     */
+    ProducerBudget getProducerBudget(IEnergyContainer producer, long amperage) {
+        long currentTick = getWorld().getTotalWorldTime();
+        if (currentTick != producerBudgetsTick) {
+            this.producerBudgets.clear();
+            this.producerBudgetsTick = currentTick;
+        }
+        ProducerBudget producerBudget = producerBudgets.get(producer);
+        if (producerBudget == null) {
+            producerBudget = new ProducerBudget(producer, amperage);
+            this.producerBudgets.put(producer, producerBudget);
+        } else {
+            producerBudget.limitAmperage(amperage);
+        }
+        return producerBudget;
+    }
+
     @Override
     protected EnergyNet createNetInstance() {
         return new EnergyNet(this);
@@ -1,29 +1,46 @@
 package gregtech.common.pipelike.cable.tile;
 
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import gregtech.api.capability.GregtechCapabilities;
 import gregtech.api.capability.IEnergyContainer;
 import gregtech.api.pipenet.tile.IPipeTile;
+import gregtech.common.ConfigHolder;
 import gregtech.common.pipelike.cable.Insulation;
 import gregtech.common.pipelike.cable.WireProperties;
+import gregtech.common.pipelike.cable.net.EnergyEndpoint;
 import gregtech.common.pipelike.cable.net.EnergyNet;
 import gregtech.common.pipelike.cable.net.RoutePath;
 import gregtech.common.pipelike.cable.net.WorldENet;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.BlockPos.PooledMutableBlockPos;
 import net.minecraft.world.World;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class CableEnergyContainer implements IEnergyContainer {
 
     private final IPipeTile<Insulation, WireProperties> tileEntityCable;
     private WeakReference<EnergyNet> currentEnergyNet = new WeakReference<>(null);
-    private long lastCachedUpdate;
+    private WeakReference<EnergyNet> pathsEnergyNet = new WeakReference<>(null);
+    private long pathsRoutesVersion;
+    private final TLongSet pathsNodes = new TLongHashSet();
     private List<RoutePath> pathsCache;
+    //paths being computed on background thread, previous paths are used until they are ready
+    private CompletableFuture<List<RoutePath>> pendingPaths;
+    private WeakReference<EnergyNet> pendingPathsEnergyNet = new WeakReference<>(null);
+    private long pendingPathsRoutesVersion;
+    //outdated paths still present in the net, used while pending paths are computed
+    private List<RoutePath> outdatedPaths;
+    private WeakReference<EnergyNet> outdatedPathsEnergyNet = new WeakReference<>(null);
+    private long outdatedPathsRoutesVersion;
+    //producers adjacent to this cable by side, offering energy to it in batched mode
+    private final EnergyEndpoint[] neighbourProducers = new EnergyEndpoint[EnumFacing.VALUES.length];
 
     public CableEnergyContainer(IPipeTile<Insulation, WireProperties> tileEntityCable) {
         this.tileEntityCable = tileEntityCable;
@@ -35,16 +52,22 @@ public class CableEnergyContainer implements IEnergyContainer {
         if (energyNet == null) {
             return 0L;
         }
+        if (ConfigHolder.batchedEnergyDispatch && side != null) {
+            IEnergyContainer producer = getNeighbourEnergyContainer(side);
+            if (producer != null) {
+                //energy is removed from producer when offers of the whole net are dispatched
+                energyNet.offerEnergy(producer, tileEntityCable.getPipePos(), getPaths(), voltage, amperage);
+                return 0L;
+            }
+        }
         List<RoutePath> paths = getPaths();
         long amperesUsed = 0;
         for (RoutePath routePath : paths) {
             if (routePath.totalLoss >= voltage) {
                 continue; //do not emit if loss is too high
             }
-            BlockPos destinationPos = routePath.destination;
-            int blockedConnections = energyNet.getAllNodes().get(destinationPos).blockedConnections;
-            amperesUsed += dispatchEnergyToNode(destinationPos, blockedConnections,
-                voltage - routePath.totalLoss, amperage - amperesUsed);
+            List<EnergyEndpoint> endpoints = energyNet.getEndpoints(routePath.destination);
+            amperesUsed += dispatchEnergyToEndpoints(endpoints, voltage - routePath.totalLoss, amperage - amperesUsed);
 
             if (voltage > routePath.minVoltage ||
                 amperesUsed > routePath.maxAmperage) {
@@ -60,6 +83,26 @@ public class CableEnergyContainer implements IEnergyContainer {
         return amperesUsed;
     }
 
+    private IEnergyContainer getNeighbourEnergyContainer(EnumFacing side) {
+        EnergyEndpoint neighbourProducer = neighbourProducers[side.getIndex()];
+        if (neighbourProducer != null && neighbourProducer.isValid()) {
+            return neighbourProducer.energyContainer;
+        }
+        this.neighbourProducers[side.getIndex()] = null;
+        World world = tileEntityCable.getPipeWorld();
+        BlockPos neighbourPos = tileEntityCable.getPipePos().offset(side);
+        TileEntity tileEntity = world.getTileEntity(neighbourPos);
+        if (tileEntity == null || tileEntityCable.getPipeBlock().getPipeTileEntity(tileEntity) != null) {
+            return null;
+        }
+        IEnergyContainer energyContainer = tileEntity.getCapability(GregtechCapabilities.CAPABILITY_ENERGY_CONTAINER, side.getOpposite());
+        if (energyContainer != null) {
+            //keep tile entity and chunk of producer to check if it is still there without world lookups
+            this.neighbourProducers[side.getIndex()] = new EnergyEndpoint(energyContainer, side.getOpposite(), tileEntity, world.getChunkFromBlockCoords(neighbourPos));
+        }
+        return energyContainer;
+    }
+
     private void burnAllPaths(List<RoutePath> paths, long voltage, long amperage, long lastAmperage) {
         for (RoutePath pathToBurn : paths) {
             if (voltage > pathToBurn.minVoltage || amperage > pathToBurn.maxAmperage || lastAmperage > pathToBurn.maxAmperage) {
@@ -68,30 +111,14 @@ public class CableEnergyContainer implements IEnergyContainer {
         }
     }
 
-    private long dispatchEnergyToNode(BlockPos nodePos, int nodeBlockedConnections, long voltage, long amperage) {
+    private static long dispatchEnergyToEndpoints(List<EnergyEndpoint> endpoints, long voltage, long amperage) {
         long amperesUsed = 0L;
-        //use pooled mutable to avoid creating new objects every tick
-        World world = tileEntityCable.getPipeWorld();
-        PooledMutableBlockPos blockPos = PooledMutableBlockPos.retain();
-        for (EnumFacing facing : EnumFacing.VALUES) {
-            if ((nodeBlockedConnections & 1 << facing.getIndex()) > 0) {
-                continue; //do not dispatch energy to blocked sides
-            }
-            blockPos.setPos(nodePos).move(facing);
-            if (!world.isBlockLoaded(nodePos)) {
-                continue; //do not allow cables to load chunks
-            }
-            TileEntity tileEntity = world.getTileEntity(blockPos);
-            if (tileEntity == null || tileEntityCable.getPipeBlock().getPipeTileEntity(tileEntity) != null) {
-                continue; //do not emit into other cable tile entities
-            }
-            IEnergyContainer energyContainer = tileEntity.getCapability(GregtechCapabilities.CAPABILITY_ENERGY_CONTAINER, null);
-            if (energyContainer == null) continue;
-            amperesUsed += energyContainer.acceptEnergyFromNetwork(facing.getOpposite(), voltage, amperage - amperesUsed);
+        for (int i = 0; i < endpoints.size(); i++) {
+            EnergyEndpoint endpoint = endpoints.get(i);
+            amperesUsed += endpoint.energyContainer.acceptEnergyFromNetwork(endpoint.side, voltage, amperage - amperesUsed);
             if (amperesUsed == amperage)
                 break;
         }
-        blockPos.release();
         return amperesUsed;
     }
 
@@ -133,9 +160,21 @@ public class CableEnergyContainer implements IEnergyContainer {
         return 0;
     }
 
-    private void recomputePaths(EnergyNet energyNet) {
-        this.lastCachedUpdate = energyNet.getLastUpdate();
-        this.pathsCache = energyNet.computePatches(tileEntityCable.getPipePos());
+    private void setPaths(List<RoutePath> paths, WeakReference<EnergyNet> energyNet, long routesVersion) {
+        this.pathsCache = paths;
+        this.outdatedPaths = null;
+        this.pathsEnergyNet = energyNet;
+        this.pathsRoutesVersion = routesVersion;
+        this.pathsNodes.clear();
+        for (RoutePath routePath : paths) {
+            routePath.collectPathNodes(pathsNodes);
+        }
+    }
+
+    private boolean arePathsValid(EnergyNet energyNet, long routesVersion) {
+        //only recompute paths if changes in the net affected any of them
+        return pathsCache != null && pathsEnergyNet.get() == energyNet &&
+            (routesVersion == pathsRoutesVersion || energyNet.areRoutesValid(pathsRoutesVersion, pathsNodes));
     }
 
     private List<RoutePath> getPaths() {
@@ -143,10 +182,49 @@ public class CableEnergyContainer implements IEnergyContainer {
         if (energyNet == null) {
             return Collections.emptyList();
         }
-        if (pathsCache == null || energyNet.getLastUpdate() > lastCachedUpdate) {
-            recomputePaths(energyNet);
+        if (pendingPaths != null && pendingPaths.isDone()) {
+            List<RoutePath> computedPaths = pendingPaths.join();
+            this.pendingPaths = null;
+            if (computedPaths != null) {
+                //paths are valid as of version they were requested at, changes made after it are checked below
+                setPaths(computedPaths, pendingPathsEnergyNet, pendingPathsRoutesVersion);
+            }
+        }
+        long routesVersion = energyNet.getRoutesVersion();
+        if (arePathsValid(energyNet, routesVersion)) {
+            this.pathsRoutesVersion = routesVersion;
+            return pathsCache;
+        }
+        //there are no previous paths to use until background computation is done on first lookup
+        if (!energyNet.shouldComputeRoutesAsync() || pathsCache == null) {
+            setPaths(energyNet.computePatches(tileEntityCable.getPipePos()), new WeakReference<>(energyNet), routesVersion);
+            return pathsCache;
+        }
+        if (pendingPaths == null) {
+            this.pendingPaths = energyNet.computePatchesAsync(tileEntityCable.getPipePos());
+            this.pendingPathsEnergyNet = new WeakReference<>(energyNet);
+            this.pendingPathsRoutesVersion = routesVersion;
+        }
+        return getOutdatedPaths(energyNet, routesVersion);
+    }
+
+    /**
+     * Returns outdated paths which are still present in the current net, so they can be used
+     * until new paths are computed without emitting through or burning cables changed since
+     */
+    private List<RoutePath> getOutdatedPaths(EnergyNet energyNet, long routesVersion) {
+        if (outdatedPaths == null || outdatedPathsEnergyNet.get() != energyNet || outdatedPathsRoutesVersion != routesVersion) {
+            List<RoutePath> presentPaths = new ArrayList<>();
+            for (RoutePath routePath : pathsCache) {
+                if (routePath.isPresentIn(energyNet)) {
+                    presentPaths.add(routePath);
+                }
+            }
+            this.outdatedPaths = presentPaths;
+            this.outdatedPathsEnergyNet = new WeakReference<>(energyNet);
+            this.outdatedPathsRoutesVersion = routesVersion;
         }
-        return pathsCache;
+        return outdatedPaths;
     }
 
     private EnergyNet getEnergyNet() {
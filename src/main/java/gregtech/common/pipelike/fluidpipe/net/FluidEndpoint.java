@@ -0,0 +1,45 @@
+package gregtech.common.pipelike.fluidpipe.net;
+
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.fluids.capability.CapabilityFluidHandler;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+
+import javax.annotation.Nullable;
+
+/**
+ * Fluid handler adjacent to active fluid pipe, which can receive fluid from the net.
+ * Endpoints are cached by the net, so they keep tile entities and chunk of the handler
+ * to check if it is still valid without looking it up in the world
+ */
+public class FluidEndpoint {
+
+    public final IFluidHandler receiverHandler;
+    private final TileEntity pipeTileEntity;
+    //side of the pipe facing receiver
+    private final EnumFacing side;
+    private final TileEntity receiverTileEntity;
+    private final Chunk receiverChunk;
+
+    public FluidEndpoint(IFluidHandler receiverHandler, TileEntity pipeTileEntity, EnumFacing side, TileEntity receiverTileEntity, Chunk receiverChunk) {
+        this.receiverHandler = receiverHandler;
+        this.pipeTileEntity = pipeTileEntity;
+        this.side = side;
+        this.receiverTileEntity = receiverTileEntity;
+        this.receiverChunk = receiverChunk;
+    }
+
+    /**
+     * Returns handler of the pipe side facing receiver. It is looked up on every call rather than cached,
+     * because covers attached to that side can be placed or removed without notifying the net
+     */
+    @Nullable
+    public IFluidHandler getSourceHandler() {
+        return pipeTileEntity.getCapability(CapabilityFluidHandler.FLUID_HANDLER_CAPABILITY, side);
+    }
+
+    public boolean isValid() {
+        return !pipeTileEntity.isInvalid() && !receiverTileEntity.isInvalid() && receiverChunk.isLoaded();
+    }
+}
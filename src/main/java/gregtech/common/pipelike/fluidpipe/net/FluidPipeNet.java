@@ -8,6 +8,7 @@ import gregtech.api.pipenet.Node;
 import gregtech.api.pipenet.PipeNet;
 import gregtech.api.pipenet.WorldPipeNet;
 import gregtech.api.pipenet.tile.IPipeTile;
+import gregtech.common.pipelike.fluidpipe.BlockFluidPipe;
 import gregtech.common.pipelike.fluidpipe.FluidPipeProperties;
 import gregtech.common.pipelike.fluidpipe.tile.TileEntityFluidPipe;
 import net.minecraft.init.Blocks;
@@ -15,19 +16,36 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumParticleTypes;
+import net.minecraft.util.ITickable;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.FluidTank;
+import net.minecraftforge.fluids.capability.CapabilityFluidHandler;
+import net.minecraftforge.fluids.capability.IFluidHandler;
 import net.minecraftforge.fml.common.Optional.Method;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Random;
+import java.util.*;
 
-public class FluidPipeNet extends MonolithicPipeNet<FluidPipeProperties> {
+public class FluidPipeNet extends MonolithicPipeNet<FluidPipeProperties> implements ITickable {
 
     private final FluidNetTank fluidNetTank = new FluidNetTank(this);
+    private final Set<BlockPos> activeNodes = new LinkedHashSet<>();
+    //copy of active nodes iterated during update, so they can change while fluid is pushed; null if outdated
+    private BlockPos[] activeNodesArray;
+    private final Map<BlockPos, List<FluidEndpoint>> endpointsCache = new HashMap<>();
+    //endpoints which can receive fluid during current update, with amounts they accept and amounts given to them
+    private final List<FluidEndpoint> receivingEndpoints = new ArrayList<>();
+    //pipe side handlers of receiving endpoints, looked up once per update
+    private final List<IFluidHandler> sourceHandlers = new ArrayList<>();
+    //receivers already collected during current update, so receiver adjacent to several nodes is counted once
+    private final Set<IFluidHandler> collectedReceivers = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int[] endpointDemands = new int[0];
+    private int[] endpointShares = new int[0];
+    //endpoint which receives rounding leftovers first, rotated every update so they are spread evenly
+    private int leftoverOffset;
+    private int fluidTransferredLastUpdate;
+    private long totalFluidTransferred;
 
     public FluidPipeNet(WorldPipeNet<FluidPipeProperties, FluidPipeNet> world) {
         super(world);
@@ -89,6 +107,277 @@ public class FluidPipeNet extends MonolithicPipeNet<FluidPipeProperties> {
         }
     }
 
+    /**
+     * Amount of fluid pushed out of this net during its last update
+     */
+    public int getFluidTransferredLastUpdate() {
+        return fluidTransferredLastUpdate;
+    }
+
+    /**
+     * Total amount of fluid pushed out of this net since it was loaded
+     */
+    public long getTotalFluidTransferred() {
+        return totalFluidTransferred;
+    }
+
+    /**
+     * Pushes fluid of the net into handlers adjacent to its active nodes, limited by throughput of the net.
+     * When endpoints want more fluid than the net can give this tick, fluid is split between them
+     * proportionally to amounts they accept, so order of endpoints doesn't matter. Fluid left
+     * after that because some endpoints accepted less than their share is given to other endpoints.
+     * Does nothing if the net tank is empty
+     */
+    @Override
+    public void update() {
+        this.fluidTransferredLastUpdate = 0;
+        FluidStack netFluid = fluidNetTank.getFluid();
+        if (netFluid == null || netFluid.amount == 0 || activeNodes.isEmpty()) {
+            return;
+        }
+        FluidStack drainableFluid = fluidNetTank.drain(Integer.MAX_VALUE, false);
+        if (drainableFluid == null) {
+            return; //throughput of this tick is already used up
+        }
+        if (activeNodesArray == null) {
+            this.activeNodesArray = activeNodes.toArray(new BlockPos[0]);
+        }
+        long totalDemand = collectEndpointDemands(drainableFluid);
+        int endpointCount = receivingEndpoints.size();
+        if (totalDemand > drainableFluid.amount) {
+            int amountLeft = drainableFluid.amount;
+            for (int i = 0; i < endpointCount; i++) {
+                int share = (int) (drainableFluid.amount * (long) endpointDemands[i] / totalDemand);
+                this.endpointShares[i] = share;
+                amountLeft -= share;
+            }
+            //rounding down loses less than one unit per endpoint, so one pass is enough
+            for (int i = 0; i < endpointCount && amountLeft > 0; i++) {
+                int index = (leftoverOffset + i) % endpointCount;
+                if (endpointShares[index] < endpointDemands[index]) {
+                    this.endpointShares[index]++;
+                    amountLeft--;
+                }
+            }
+            this.leftoverOffset = (leftoverOffset + 1) % endpointCount;
+        } else {
+            System.arraycopy(endpointDemands, 0, endpointShares, 0, endpointCount);
+        }
+        int amountTransferred = 0;
+        for (int i = 0; i < endpointCount; i++) {
+            int amountPushed = pushIntoEndpoint(sourceHandlers.get(i), receivingEndpoints.get(i).receiverHandler, drainableFluid, endpointShares[i]);
+            //endpoint which accepted less than its share won't accept leftovers either
+            this.endpointShares[i] = amountPushed < endpointShares[i] ? -1 : amountPushed;
+            amountTransferred += amountPushed;
+        }
+        if (amountTransferred < drainableFluid.amount && totalDemand > drainableFluid.amount) {
+            amountTransferred += pushLeftovers(drainableFluid, drainableFluid.amount - amountTransferred);
+        }
+        this.receivingEndpoints.clear();
+        this.sourceHandlers.clear();
+        this.collectedReceivers.clear();
+        this.fluidTransferredLastUpdate = amountTransferred;
+        this.totalFluidTransferred += amountTransferred;
+    }
+
+    /**
+     * Gives fluid not accepted by some endpoints to endpoints which accepted all of their share,
+     * going around endpoints from the current leftover offset
+     *
+     * @return amount of leftover fluid pushed
+     */
+    private int pushLeftovers(FluidStack drainableFluid, int amountLeft) {
+        int endpointCount = receivingEndpoints.size();
+        int amountTransferred = 0;
+        for (int i = 0; i < endpointCount && amountTransferred < amountLeft; i++) {
+            int index = (leftoverOffset + i) % endpointCount;
+            if (endpointShares[index] < 0) {
+                continue;
+            }
+            amountTransferred += pushIntoEndpoint(sourceHandlers.get(index), receivingEndpoints.get(index).receiverHandler,
+                drainableFluid, amountLeft - amountTransferred);
+        }
+        return amountTransferred;
+    }
+
+    /**
+     * Collects endpoints which can accept some of the given fluid into {@link #receivingEndpoints}.
+     * Receiver adjacent to several active nodes is only collected once, so its demand is not multiplied
+     *
+     * @return total amount of fluid accepted by all endpoints
+     */
+    private long collectEndpointDemands(FluidStack drainableFluid) {
+        long totalDemand = 0L;
+        this.receivingEndpoints.clear();
+        this.sourceHandlers.clear();
+        this.collectedReceivers.clear();
+        for (BlockPos nodePos : activeNodesArray) {
+            List<FluidEndpoint> endpoints = getEndpoints(nodePos);
+            for (int i = 0; i < endpoints.size(); i++) {
+                FluidEndpoint endpoint = endpoints.get(i);
+                if (collectedReceivers.contains(endpoint.receiverHandler)) {
+                    continue;
+                }
+                IFluidHandler sourceHandler = endpoint.getSourceHandler();
+                if (sourceHandler == null) {
+                    continue; //cover attached after endpoint was cached can disable pipe side
+                }
+                FluidStack fluidToPush = sourceHandler.drain(drainableFluid.copy(), false);
+                int demand = fluidToPush == null ? 0 : endpoint.receiverHandler.fill(fluidToPush, false);
+                if (demand > 0) {
+                    int endpointIndex = receivingEndpoints.size();
+                    if (endpointIndex == endpointDemands.length) {
+                        this.endpointDemands = Arrays.copyOf(endpointDemands, endpointIndex * 2 + 4);
+                        this.endpointShares = new int[endpointDemands.length];
+                    }
+                    this.receivingEndpoints.add(endpoint);
+                    this.sourceHandlers.add(sourceHandler);
+                    this.collectedReceivers.add(endpoint.receiverHandler);
+                    this.endpointDemands[endpointIndex] = demand;
+                    totalDemand += demand;
+                }
+            }
+        }
+        return totalDemand;
+    }
+
+    private static int pushIntoEndpoint(IFluidHandler sourceHandler, IFluidHandler receiverHandler, FluidStack netFluid, int maxAmount) {
+        if (maxAmount <= 0) {
+            return 0;
+        }
+        FluidStack fluidToPush = netFluid.copy();
+        fluidToPush.amount = maxAmount;
+        FluidStack drainableFluid = sourceHandler.drain(fluidToPush, false);
+        if (drainableFluid == null || drainableFluid.amount == 0) {
+            return 0;
+        }
+        int amountFilled = receiverHandler.fill(drainableFluid, false);
+        if (amountFilled == 0) {
+            return 0;
+        }
+        drainableFluid.amount = amountFilled;
+        FluidStack drainedFluid = sourceHandler.drain(drainableFluid, true);
+        if (drainedFluid == null) {
+            return 0;
+        }
+        receiverHandler.fill(drainedFluid, true);
+        return drainedFluid.amount;
+    }
+
+    /**
+     * Returns fluid handlers adjacent to the given node, which can receive fluid from it.
+     * Endpoints are cached until neighbours of the node change
+     */
+    public List<FluidEndpoint> getEndpoints(BlockPos nodePos) {
+        List<FluidEndpoint> endpoints = endpointsCache.get(nodePos);
+        if (endpoints != null && areEndpointsValid(endpoints)) {
+            return endpoints;
+        }
+        return resolveEndpoints(nodePos);
+    }
+
+    private static boolean areEndpointsValid(List<FluidEndpoint> endpoints) {
+        for (int i = 0; i < endpoints.size(); i++) {
+            if (!endpoints.get(i).isValid()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<FluidEndpoint> resolveEndpoints(BlockPos nodePos) {
+        this.endpointsCache.remove(nodePos);
+        Node<FluidPipeProperties> node = getNodeAt(nodePos);
+        World world = getWorldData();
+        if (node == null || !world.isBlockLoaded(nodePos)) {
+            return Collections.emptyList();
+        }
+        TileEntity pipeTileEntity = world.getTileEntity(nodePos);
+        if (!(pipeTileEntity instanceof TileEntityFluidPipe)) {
+            return Collections.emptyList();
+        }
+        TileEntityFluidPipe pipeTile = (TileEntityFluidPipe) pipeTileEntity;
+        BlockFluidPipe pipeBlock = (BlockFluidPipe) pipeTile.getPipeBlock();
+        List<FluidEndpoint> endpoints = new ArrayList<>();
+        boolean isComplete = true;
+        for (EnumFacing facing : EnumFacing.VALUES) {
+            if ((node.blockedConnections & 1 << facing.getIndex()) > 0) {
+                continue; //do not dispatch fluids to blocked sides
+            }
+            BlockPos offsetPos = nodePos.offset(facing);
+            if (!world.isBlockLoaded(offsetPos)) {
+                //do not allow pipes to load chunks, and look at this side again once it is loaded
+                isComplete = false;
+                continue;
+            }
+            TileEntity tileEntity = world.getTileEntity(offsetPos);
+            if (tileEntity == null) {
+                continue;
+            }
+            IFluidHandler sourceHandler = pipeTile.getCapability(CapabilityFluidHandler.FLUID_HANDLER_CAPABILITY, facing);
+            IFluidHandler receiverHandler = tileEntity.getCapability(CapabilityFluidHandler.FLUID_HANDLER_CAPABILITY, facing.getOpposite());
+            if (receiverHandler == null) {
+                continue;
+            }
+            //side disabled by cover is kept as well, since cover can be removed without notifying the net
+            boolean canPush = sourceHandler == null ? pipeBlock.getPipeTileEntity(tileEntity) == null :
+                pipeBlock.canPushIntoFluidHandler(pipeTile, tileEntity, sourceHandler, receiverHandler);
+            if (canPush) {
+                endpoints.add(new FluidEndpoint(receiverHandler, pipeTileEntity, facing, tileEntity, world.getChunkFromBlockCoords(offsetPos)));
+            }
+        }
+        if (isComplete) {
+            this.endpointsCache.put(nodePos, endpoints);
+        }
+        return endpoints;
+    }
+
+    @Override
+    public void onNeighbourUpdate(BlockPos nodePos) {
+        this.endpointsCache.remove(nodePos);
+    }
+
+    @Override
+    public boolean markNodeAsActive(BlockPos nodePos, boolean isActive) {
+        boolean modeChanged = super.markNodeAsActive(nodePos, isActive);
+        if (modeChanged) {
+            if (isActive) {
+                this.activeNodes.add(nodePos);
+            } else {
+                this.activeNodes.remove(nodePos);
+                this.endpointsCache.remove(nodePos);
+            }
+            this.activeNodesArray = null;
+        }
+        return modeChanged;
+    }
+
+    @Override
+    protected void addNodeSilently(BlockPos nodePos, Node<FluidPipeProperties> node) {
+        super.addNodeSilently(nodePos, node);
+        if (node.isActive) {
+            this.activeNodes.add(nodePos);
+            this.activeNodesArray = null;
+        }
+    }
+
+    @Override
+    protected Node<FluidPipeProperties> removeNodeWithoutRebuilding(BlockPos nodePos) {
+        Node<FluidPipeProperties> removedNode = super.removeNodeWithoutRebuilding(nodePos);
+        if (removedNode != null && removedNode.isActive) {
+            this.activeNodes.remove(nodePos);
+            this.endpointsCache.remove(nodePos);
+            this.activeNodesArray = null;
+        }
+        return removedNode;
+    }
+
+    @Override
+    protected void updateBlockedConnections(BlockPos nodePos, EnumFacing facing, boolean isBlocked) {
+        this.endpointsCache.remove(nodePos);
+        super.updateBlockedConnections(nodePos, facing, isBlocked);
+    }
+
     @Override
     protected void onConnectionsUpdate() {
         super.onConnectionsUpdate();
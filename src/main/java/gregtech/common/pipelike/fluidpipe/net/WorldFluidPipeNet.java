@@ -1,10 +1,10 @@
 package gregtech.common.pipelike.fluidpipe.net;
 
-import gregtech.api.pipenet.WorldPipeNet;
+import gregtech.api.pipenet.tickable.TickableWorldPipeNet;
 import gregtech.common.pipelike.fluidpipe.FluidPipeProperties;
 import net.minecraft.world.World;
 
-public class WorldFluidPipeNet extends WorldPipeNet<FluidPipeProperties, FluidPipeNet> {
+public class WorldFluidPipeNet extends TickableWorldPipeNet<FluidPipeProperties, FluidPipeNet> {
 
     private static final String DATA_ID = "gregtech.fluid_pipe_net";
 
@@ -22,6 +22,11 @@ public class WorldFluidPipeNet extends WorldPipeNet<FluidPipeProperties, FluidPi
         super(name);
     }
 
+    @Override
+    protected int getUpdateRate() {
+        return 1;
+    }
+
     @Override
     protected void removePipeNet(FluidPipeNet pipeNet) {
         super.removePipeNet(pipeNet);
@@ -45,6 +45,18 @@ public class BlockInventoryPipe extends BlockSimplePipe<InventoryPipeType, Empty
         }
     }
 
+    @Override
+    public void onNeighborChange(IBlockAccess world, BlockPos pos, BlockPos neighbor) {
+        super.onNeighborChange(world, pos, neighbor);
+        //inventories notify adjacent blocks this way when their contents change, for example vanilla chests
+        if (world instanceof World && !((World) world).isRemote) {
+            InventoryPipeNet inventoryPipeNet = getWorldPipeNet((World) world).getNetFromPos(pos);
+            if (inventoryPipeNet != null) {
+                inventoryPipeNet.nodeNeighbourContentsChanged(pos, neighbor);
+            }
+        }
+    }
+
     @Override
     public int getActiveNodeConnections(IBlockAccess world, BlockPos nodePos, IPipeTile<InventoryPipeType, EmptyNodeData> selfTileEntity) {
         int activeNodeConnections = 0;
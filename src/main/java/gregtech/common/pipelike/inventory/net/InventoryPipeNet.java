@@ -40,6 +40,15 @@ public class InventoryPipeNet extends PipeNet<EmptyNodeData> implements ITickabl
         }
     }
 
+    public void nodeNeighbourContentsChanged(BlockPos nodePos, BlockPos neighbourPos) {
+        for (EnumFacing accessSide : EnumFacing.VALUES) {
+            if (nodePos.offset(accessSide).equals(neighbourPos)) {
+                getStorageNetwork().markItemHandlerChanged(nodePos, accessSide);
+                break;
+            }
+        }
+    }
+
     @Override
     protected void transferNodeData(Map<BlockPos, Node<EmptyNodeData>> transferredNodes, PipeNet<EmptyNodeData> parentNet) {
         super.transferNodeData(transferredNodes, parentNet);
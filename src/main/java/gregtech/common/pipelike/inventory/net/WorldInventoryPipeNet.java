@@ -24,7 +24,7 @@ public class WorldInventoryPipeNet extends TickableWorldPipeNet<EmptyNodeData, I
 
     @Override
     protected int getUpdateRate() {
-        return 20;
+        return 1;
     }
 
     @Override
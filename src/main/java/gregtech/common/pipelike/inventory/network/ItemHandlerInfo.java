@@ -1,5 +1,7 @@
 package gregtech.common.pipelike.inventory.network;
 
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
 import gregtech.api.util.ItemStackKey;
 import net.minecraft.item.ItemStack;
 import net.minecraft.tileentity.TileEntity;
@@ -11,8 +13,8 @@ import net.minecraftforge.items.wrapper.EmptyHandler;
 
 import java.lang.ref.WeakReference;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 public class ItemHandlerInfo {
 
@@ -22,6 +24,11 @@ public class ItemHandlerInfo {
     private WeakReference<TileEntity> cachedTileEntity = new WeakReference<>(null);
     private IItemHandler itemHandler = EmptyHandler.INSTANCE;
     private Map<ItemStackKey, Integer> itemStackByAmountMap = new HashMap<>();
+    //contents of every slot as of last scan or operation, and slots containing each item
+    private ItemStackKey[] slotKeys = new ItemStackKey[0];
+    private int[] slotCounts = new int[0];
+    private final Map<ItemStackKey, TIntList> slotsByItem = new HashMap<>();
+    private final TIntList emptySlots = new TIntArrayList();
     private ItemStorageNetwork storageNetwork;
 
     public ItemHandlerInfo(BlockPos blockPos, EnumFacing accessSide) {
@@ -46,8 +53,12 @@ public class ItemHandlerInfo {
         return accessedBlockPos;
     }
 
+    public int getSlotCount() {
+        return itemHandler.getSlots();
+    }
+
     private IItemHandler getItemHandler() {
-        if (storageNetwork.getWorld().isBlockLoaded(accessedBlockPos)) {
+        if (!storageNetwork.getWorld().isBlockLoaded(accessedBlockPos)) {
             //we handle unloaded blocks as empty item handlers
             //so when they are loaded, they are refreshed and handled correctly
             return EmptyHandler.INSTANCE;
@@ -88,57 +99,189 @@ public class ItemHandlerInfo {
     }
 
     /**
+     * Inserts item into slots already containing it first, and then into empty slots.
+     * Stops as soon as whole amount is inserted, and updates item counts only for touched slots
+     *
      * @return amount of items inserted into the inventory
      */
     public int insertItem(ItemStackKey itemStackKey, int amount, boolean simulate) {
-        int itemsInserted = 0;
-        for (int i = 0; i < itemHandler.getSlots(); i++) {
-            ItemStack insertStack = itemStackKey.getItemStack();
-            insertStack.setCount(amount);
-            ItemStack remainderStack = itemHandler.insertItem(i, itemStackKey.getItemStack(), simulate);
-            itemsInserted += (insertStack.getCount() - remainderStack.getCount());
+        int amountLeft = amount;
+        TIntList touchedSlots = new TIntArrayList();
+        TIntList itemSlots = slotsByItem.get(itemStackKey);
+        if (itemSlots != null) {
+            amountLeft = insertIntoSlots(itemSlots, itemStackKey, amountLeft, simulate, touchedSlots);
         }
-        if (itemsInserted > 0 && !simulate) {
-            recomputeItemStackCount();
+        if (amountLeft > 0) {
+            amountLeft = insertIntoSlots(emptySlots, itemStackKey, amountLeft, simulate, touchedSlots);
+        }
+        if (!simulate) {
+            applySlotChanges(touchedSlots);
+        }
+        return amount - amountLeft;
+    }
+
+    private int insertIntoSlots(TIntList slots, ItemStackKey itemStackKey, int amountLeft, boolean simulate, TIntList touchedSlots) {
+        int slotsCount = itemHandler.getSlots();
+        for (int i = 0; i < slots.size() && amountLeft > 0; i++) {
+            int slot = slots.get(i);
+            if (slot >= slotsCount) continue; //inventory shrunk since last scan
+            ItemStack insertStack = itemStackKey.getItemStack();
+            insertStack.setCount(amountLeft);
+            ItemStack remainderStack = itemHandler.insertItem(slot, insertStack, simulate);
+            int itemsInserted = amountLeft - remainderStack.getCount();
+            if (itemsInserted > 0) {
+                amountLeft -= itemsInserted;
+                touchedSlots.add(slot);
+            }
         }
-        return itemsInserted;
+        return amountLeft;
     }
 
     /**
+     * Extracts item only from slots known to contain it.
+     * Stops as soon as whole amount is extracted, and updates item counts only for touched slots
+     *
      * @return amount of items extracted from the inventory
      */
     public int extractItem(ItemStackKey itemStackKey, int amount, boolean simulate) {
-        int itemsExtracted = 0;
-        for (int i = 0; i < itemHandler.getSlots(); i++) {
-            ItemStack stackInSlot = itemHandler.getStackInSlot(i);
-            if (stackInSlot.isEmpty()) continue;
-            if (!itemStackKey.isItemStackEqual(stackInSlot)) continue;
-            ItemStack extractedStack = itemHandler.extractItem(i, amount, simulate);
+        TIntList itemSlots = slotsByItem.get(itemStackKey);
+        if (itemSlots == null) {
+            return 0;
+        }
+        int amountLeft = amount;
+        int slotsCount = itemHandler.getSlots();
+        TIntList touchedSlots = new TIntArrayList();
+        for (int i = 0; i < itemSlots.size() && amountLeft > 0; i++) {
+            int slot = itemSlots.get(i);
+            if (slot >= slotsCount) continue;
+            ItemStack stackInSlot = itemHandler.getStackInSlot(slot);
+            if (!itemStackKey.isItemStackEqual(stackInSlot)) {
+                //slot changed since last scan, so update it once extraction is done
+                touchedSlots.add(slot);
+                continue;
+            }
+            ItemStack extractedStack = itemHandler.extractItem(slot, amountLeft, simulate);
             if (!extractedStack.isEmpty()) {
-                itemsExtracted += extractedStack.getCount();
+                amountLeft -= extractedStack.getCount();
+                touchedSlots.add(slot);
             }
         }
-        if (itemsExtracted > 0 && !simulate) {
-            recomputeItemStackCount();
+        if (!simulate) {
+            applySlotChanges(touchedSlots);
+        }
+        return amount - amountLeft;
+    }
+
+    /**
+     * Reads current contents of the given slots, and applies their differences
+     * from the last known contents to slot locations and item amounts
+     */
+    private void applySlotChanges(TIntList touchedSlots) {
+        for (int i = 0; i < touchedSlots.size(); i++) {
+            int slot = touchedSlots.get(i);
+            ItemStackKey oldKey = slotKeys[slot];
+            int oldCount = slotCounts[slot];
+            ItemStack newStack = itemHandler.getStackInSlot(slot);
+            ItemStackKey newKey = null;
+            if (!newStack.isEmpty()) {
+                newKey = oldKey != null && oldKey.isItemStackEqual(newStack) ? oldKey : new ItemStackKey(newStack);
+            }
+            int newCount = newStack.getCount();
+            if (newKey == oldKey && newCount == oldCount) continue;
+            setSlotContents(slot, oldKey, newKey, newCount);
+            if (newKey == oldKey) {
+                changeItemAmount(newKey, newCount - oldCount);
+            } else {
+                if (oldKey != null) {
+                    changeItemAmount(oldKey, -oldCount);
+                }
+                if (newKey != null) {
+                    changeItemAmount(newKey, newCount);
+                }
+            }
+        }
+    }
+
+    private void setSlotContents(int slot, ItemStackKey oldKey, ItemStackKey newKey, int newCount) {
+        if (oldKey != newKey) {
+            if (oldKey == null) {
+                this.emptySlots.remove(slot);
+            } else {
+                TIntList oldItemSlots = slotsByItem.get(oldKey);
+                oldItemSlots.remove(slot);
+                if (oldItemSlots.isEmpty()) {
+                    this.slotsByItem.remove(oldKey);
+                }
+            }
+            if (newKey == null) {
+                this.emptySlots.add(slot);
+            } else {
+                this.slotsByItem.computeIfAbsent(newKey, key -> new TIntArrayList()).add(slot);
+            }
         }
-        return itemsExtracted;
+        this.slotKeys[slot] = newKey;
+        this.slotCounts[slot] = newKey == null ? 0 : newCount;
     }
 
+    private void changeItemAmount(ItemStackKey itemStackKey, int amountDelta) {
+        int newAmount = itemStackByAmountMap.getOrDefault(itemStackKey, 0) + amountDelta;
+        if (newAmount > 0) {
+            this.itemStackByAmountMap.put(itemStackKey, newAmount);
+        } else {
+            this.itemStackByAmountMap.remove(itemStackKey);
+        }
+        this.storageNetwork.updateStoredItem(this, itemStackKey, newAmount);
+    }
+
+    /**
+     * Scans all slots of the inventory, rebuilding slot locations of items
+     *
+     * @return true if amounts of items in the inventory changed
+     */
     private boolean recomputeItemStackCount() {
+        int slotsCount = itemHandler.getSlots();
+        ItemStackKey[] oldSlotKeys = slotKeys;
+        if (slotKeys.length != slotsCount) {
+            this.slotKeys = new ItemStackKey[slotsCount];
+            this.slotCounts = new int[slotsCount];
+        }
         HashMap<ItemStackKey, Integer> amountMap = new HashMap<>();
-        for (int i = 0; i < itemHandler.getSlots(); i++) {
+        this.slotsByItem.clear();
+        this.emptySlots.clear();
+        for (int i = 0; i < slotsCount; i++) {
             ItemStack itemStack = itemHandler.getStackInSlot(i);
-            if (itemStack.isEmpty()) continue;
-            ItemStackKey stackKey = new ItemStackKey(itemStack);
+            if (itemStack.isEmpty()) {
+                this.slotKeys[i] = null;
+                this.slotCounts[i] = 0;
+                this.emptySlots.add(i);
+                continue;
+            }
+            //reuse key from the last scan if slot still contains the same item
+            ItemStackKey oldKey = i < oldSlotKeys.length ? oldSlotKeys[i] : null;
+            ItemStackKey stackKey = oldKey != null && oldKey.isItemStackEqual(itemStack) ? oldKey : new ItemStackKey(itemStack);
+            this.slotKeys[i] = stackKey;
+            this.slotCounts[i] = itemStack.getCount();
+            this.slotsByItem.computeIfAbsent(stackKey, key -> new TIntArrayList()).add(i);
             amountMap.put(stackKey, amountMap.getOrDefault(stackKey, 0) + itemStack.getCount());
         }
         if (amountMap.equals(itemStackByAmountMap)) {
             return false;
         }
-        HashSet<ItemStackKey> removedItems = new HashSet<>(itemStackByAmountMap.keySet());
-        removedItems.removeAll(amountMap.keySet());
+        Map<ItemStackKey, Integer> oldAmountMap = itemStackByAmountMap;
         this.itemStackByAmountMap = amountMap;
-        this.storageNetwork.updateStoredItems(this, amountMap, removedItems);
+        this.storageNetwork.updateStoredItems(this, oldAmountMap, amountMap);
         return true;
     }
+
+    Set<ItemStackKey> getStoredItems() {
+        return itemStackByAmountMap.keySet();
+    }
+
+    /**
+     * Forgets items counted in this inventory, so they are reported again
+     * to the network handler is added to next
+     */
+    void resetStoredItems() {
+        this.itemStackByAmountMap = new HashMap<>();
+    }
 }
@@ -1,6 +1,7 @@
 package gregtech.common.pipelike.inventory.network;
 
 import gregtech.api.util.ItemStackKey;
+import gregtech.common.ConfigHolder;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
@@ -10,10 +11,20 @@ import java.util.stream.Collectors;
 
 public class ItemStorageNetwork {
 
+    //minimum amount of ticks between round-robin scans of the same handler, same as full rescan rate before
+    private static final int MIN_SCAN_INTERVAL = 20;
+
     private final World world;
     private final List<ItemHandlerInfo> handlerInfoList = new ArrayList<>();
     private final Map<SidedBlockPos, ItemHandlerInfo> handlerInfoMap = new HashMap<>();
     private final Map<ItemStackKey, NetworkItemInfo> itemInfoMap = new HashMap<>();
+    //handlers which reported a change and are rescanned on next update outside of the slot budget
+    private final Set<ItemHandlerInfo> changedHandlers = new LinkedHashSet<>();
+    //index in handlerInfoList of the handler scanned next in round-robin order
+    private int nextScannedHandler;
+    //round-robin pass over all handlers starts at most once per MIN_SCAN_INTERVAL ticks
+    private boolean scanRoundInProgress;
+    private long scanRoundStartTime = -MIN_SCAN_INTERVAL;
 
     public ItemStorageNetwork(World world) {
         this.world = world;
@@ -27,8 +38,124 @@ public class ItemStorageNetwork {
         return Collections.unmodifiableCollection(itemInfoMap.values());
     }
 
+    /**
+     * @return info of the given item stored in the network, or null if network doesn't contain it
+     */
+    public NetworkItemInfo getItemInfo(ItemStackKey itemStackKey) {
+        return itemInfoMap.get(itemStackKey);
+    }
+
+    public int getTotalItemAmount(ItemStackKey itemStackKey) {
+        NetworkItemInfo itemInfo = itemInfoMap.get(itemStackKey);
+        return itemInfo == null ? 0 : itemInfo.getTotalItemAmount();
+    }
+
+    /**
+     * Inserts item into inventories of the network, preferring inventories which already contain it
+     *
+     * @return amount of items inserted
+     */
+    public int insertItem(ItemStackKey itemStackKey, int amount, boolean simulate) {
+        int amountLeft = amount;
+        NetworkItemInfo itemInfo = itemInfoMap.get(itemStackKey);
+        Set<ItemHandlerInfo> preferredHandlers = itemInfo == null ? Collections.emptySet() : new HashSet<>(itemInfo.getInventories());
+        for (ItemHandlerInfo handlerInfo : preferredHandlers) {
+            if (amountLeft <= 0) break;
+            amountLeft -= handlerInfo.insertItem(itemStackKey, amountLeft, simulate);
+        }
+        for (int i = 0; i < handlerInfoList.size() && amountLeft > 0; i++) {
+            ItemHandlerInfo handlerInfo = handlerInfoList.get(i);
+            if (!preferredHandlers.contains(handlerInfo)) {
+                amountLeft -= handlerInfo.insertItem(itemStackKey, amountLeft, simulate);
+            }
+        }
+        return amount - amountLeft;
+    }
+
+    /**
+     * Extracts item from inventories of the network which contain it, looked up in the item index
+     *
+     * @return amount of items extracted
+     */
+    public int extractItem(ItemStackKey itemStackKey, int amount, boolean simulate) {
+        NetworkItemInfo itemInfo = itemInfoMap.get(itemStackKey);
+        if (itemInfo == null) {
+            return 0;
+        }
+        int amountLeft = amount;
+        //copy inventories, since extraction removes them from item info once they are empty
+        List<ItemHandlerInfo> itemHandlers = new ArrayList<>(itemInfo.getInventories());
+        for (int i = 0; i < itemHandlers.size() && amountLeft > 0; i++) {
+            amountLeft -= itemHandlers.get(i).extractItem(itemStackKey, amountLeft, simulate);
+        }
+        return amount - amountLeft;
+    }
+
+    /**
+     * Rescans handlers which reported a change, and then scans next handlers in round-robin order
+     * until slot budget from {@link ConfigHolder#inventoryNetSlotScanBudget} is used up.
+     * At least one handler is scanned every update, so even networks with huge inventories make progress.
+     * New round-robin pass starts at most once per {@link #MIN_SCAN_INTERVAL} ticks, so handlers
+     * which didn't report changes are not scanned more often than with full rescan every 20 ticks
+     */
     public void update() {
-        this.handlerInfoList.removeIf(itemHandler -> itemHandler.updateCachedInfo() == UpdateResult.INVALID);
+        int slotsScanned = 0;
+        if (!changedHandlers.isEmpty()) {
+            List<ItemHandlerInfo> rescannedHandlers = new ArrayList<>(changedHandlers);
+            this.changedHandlers.clear();
+            for (ItemHandlerInfo handlerInfo : rescannedHandlers) {
+                slotsScanned += scanItemHandler(handlerInfo);
+            }
+        }
+        int handlersLeft = handlerInfoList.size();
+        boolean scannedAny = false;
+        while (handlersLeft-- > 0 && (!scannedAny || slotsScanned < ConfigHolder.inventoryNetSlotScanBudget)) {
+            if (nextScannedHandler >= handlerInfoList.size()) {
+                this.nextScannedHandler = 0;
+                this.scanRoundInProgress = false;
+            }
+            if (!scanRoundInProgress) {
+                long currentTime = world.getTotalWorldTime();
+                if (currentTime - scanRoundStartTime < MIN_SCAN_INTERVAL) {
+                    break; //all handlers were already scanned recently
+                }
+                this.scanRoundStartTime = currentTime;
+                this.scanRoundInProgress = true;
+            }
+            ItemHandlerInfo handlerInfo = handlerInfoList.get(nextScannedHandler);
+            if (handlerInfo.updateCachedInfo() == UpdateResult.INVALID) {
+                //next handler is shifted into this index, so it is scanned next
+                removeItemHandler(handlerInfo);
+            } else {
+                slotsScanned += handlerInfo.getSlotCount();
+                this.nextScannedHandler++;
+            }
+            scannedAny = true;
+        }
+    }
+
+    /**
+     * Updates cached info of the given handler and removes it if it became invalid
+     *
+     * @return amount of slots scanned
+     */
+    private int scanItemHandler(ItemHandlerInfo handlerInfo) {
+        if (handlerInfo.updateCachedInfo() == UpdateResult.INVALID) {
+            removeItemHandler(handlerInfo);
+            return 0;
+        }
+        return handlerInfo.getSlotCount();
+    }
+
+    /**
+     * Schedules rescan of item handler accessed from the given side of the node on next update,
+     * used when inventory reports its contents changed
+     */
+    public void markItemHandlerChanged(BlockPos nodePos, EnumFacing accessSide) {
+        ItemHandlerInfo handlerInfo = handlerInfoMap.get(new SidedBlockPos(nodePos, accessSide));
+        if (handlerInfo != null) {
+            this.changedHandlers.add(handlerInfo);
+        }
     }
 
     public void transferItemHandlers(Collection<BlockPos> nodePositions, ItemStorageNetwork destNetwork) {
@@ -63,9 +190,9 @@ public class ItemStorageNetwork {
             SidedBlockPos blockPos = new SidedBlockPos(nodePos, accessSide);
             if (handlerInfoMap.containsKey(blockPos)) {
                 ItemHandlerInfo handlerInfo = handlerInfoMap.get(blockPos);
-                if (handlerInfo.updateCachedInfo() == UpdateResult.INVALID) {
-                    removeItemHandler(handlerInfo);
-                }
+                //neighbour changed, so rescan it immediately instead of waiting for its turn
+                scanItemHandler(handlerInfo);
+                this.changedHandlers.remove(handlerInfo);
             } else {
                 ItemHandlerInfo handlerInfo = new ItemHandlerInfo(nodePos, accessSide);
                 //just add unchecked item handler, addItemHandler will refuse
@@ -88,28 +215,52 @@ public class ItemStorageNetwork {
     private void removeItemHandler(ItemHandlerInfo handlerInfo) {
         this.handlerInfoList.remove(handlerInfo);
         this.handlerInfoMap.remove(handlerPosition(handlerInfo));
-        handlerInfo.setStorageNetwork(null);
-        for (ItemStackKey itemStackKey : itemInfoMap.keySet()) {
-            NetworkItemInfo itemInfo = itemInfoMap.get(itemStackKey);
-            itemInfo.removeInventory(handlerInfo);
+        this.changedHandlers.remove(handlerInfo);
+        for (ItemStackKey itemStackKey : handlerInfo.getStoredItems()) {
+            removeStoredItem(handlerInfo, itemStackKey);
         }
+        handlerInfo.resetStoredItems();
+        handlerInfo.setStorageNetwork(null);
     }
 
     private static SidedBlockPos handlerPosition(ItemHandlerInfo handlerInfo) {
         return new SidedBlockPos(handlerInfo.getBlockPos(), handlerInfo.getAccessSide());
     }
 
-    void updateStoredItems(ItemHandlerInfo handlerInfo, Map<ItemStackKey, Integer> itemAmount, Set<ItemStackKey> removedItems) {
-        for (ItemStackKey itemStackKey : itemAmount.keySet()) {
-            NetworkItemInfo itemInfo = itemInfoMap.get(itemStackKey);
-            if (itemInfo != null) {
-                itemInfo.addInventory(handlerInfo, itemAmount.get(itemStackKey));
+    /**
+     * Applies changes of item amounts in the given handler to the item index of the network
+     */
+    void updateStoredItems(ItemHandlerInfo handlerInfo, Map<ItemStackKey, Integer> oldAmounts, Map<ItemStackKey, Integer> newAmounts) {
+        for (Map.Entry<ItemStackKey, Integer> entry : newAmounts.entrySet()) {
+            if (!entry.getValue().equals(oldAmounts.get(entry.getKey()))) {
+                updateStoredItem(handlerInfo, entry.getKey(), entry.getValue());
+            }
+        }
+        for (ItemStackKey itemStackKey : oldAmounts.keySet()) {
+            if (!newAmounts.containsKey(itemStackKey)) {
+                removeStoredItem(handlerInfo, itemStackKey);
             }
         }
-        for (ItemStackKey removedItem : removedItems) {
-            NetworkItemInfo itemInfo = itemInfoMap.get(removedItem);
-            if (itemInfo != null) {
-                itemInfo.removeInventory(handlerInfo);
+    }
+
+    /**
+     * Sets amount of single item in the given handler, removing handler from the item info if amount is zero
+     */
+    void updateStoredItem(ItemHandlerInfo handlerInfo, ItemStackKey itemStackKey, int newAmount) {
+        if (newAmount > 0) {
+            NetworkItemInfo itemInfo = itemInfoMap.computeIfAbsent(itemStackKey, NetworkItemInfo::new);
+            itemInfo.addInventory(handlerInfo, newAmount);
+        } else {
+            removeStoredItem(handlerInfo, itemStackKey);
+        }
+    }
+
+    private void removeStoredItem(ItemHandlerInfo handlerInfo, ItemStackKey itemStackKey) {
+        NetworkItemInfo itemInfo = itemInfoMap.get(itemStackKey);
+        if (itemInfo != null) {
+            itemInfo.removeInventory(handlerInfo);
+            if (itemInfo.isEmpty()) {
+                this.itemInfoMap.remove(itemStackKey);
             }
         }
     }
@@ -2,14 +2,20 @@ package gregtech.common.pipelike.inventory.network;
 
 import gregtech.api.util.ItemStackKey;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
+/**
+ * Entry of the network item index, holding amounts of single item in every inventory of the network which contains it.
+ * Total amount is updated together with amounts of inventories, so it doesn't need recomputing
+ */
 public class NetworkItemInfo {
 
     private final ItemStackKey itemStackKey;
     private int totalItemAmount = 0;
-    private Map<ItemHandlerInfo, Integer> inventories = new HashMap<>();
+    private final Map<ItemHandlerInfo, Integer> inventories = new HashMap<>();
 
     public NetworkItemInfo(ItemStackKey itemStackKey) {
         this.itemStackKey = itemStackKey;
@@ -23,22 +29,27 @@ public class NetworkItemInfo {
         return itemStackKey;
     }
 
+    public Set<ItemHandlerInfo> getInventories() {
+        return Collections.unmodifiableSet(inventories.keySet());
+    }
+
+    public int getInventoryItemAmount(ItemHandlerInfo inventory) {
+        return inventories.getOrDefault(inventory, 0);
+    }
+
+    boolean isEmpty() {
+        return inventories.isEmpty();
+    }
+
     void addInventory(ItemHandlerInfo inventory, int amount) {
-        if (inventories.getOrDefault(inventory, 0) != amount) {
-            this.inventories.put(inventory, amount);
-            recomputeItemAmount();
-        }
+        Integer oldAmount = inventories.put(inventory, amount);
+        this.totalItemAmount += amount - (oldAmount == null ? 0 : oldAmount);
     }
 
     void removeInventory(ItemHandlerInfo inventory) {
-        if (inventories.containsKey(inventory)) {
-            this.inventories.remove(inventory);
-            recomputeItemAmount();
+        Integer oldAmount = inventories.remove(inventory);
+        if (oldAmount != null) {
+            this.totalItemAmount -= oldAmount;
         }
     }
-
-    private void recomputeItemAmount() {
-        this.totalItemAmount = inventories.values().stream()
-            .mapToInt(Integer::intValue).sum();
-    }
 }
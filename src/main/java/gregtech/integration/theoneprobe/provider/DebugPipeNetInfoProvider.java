@@ -8,8 +8,7 @@ import gregtech.api.pipenet.block.BlockPipe;
 import gregtech.api.pipenet.tile.IPipeTile;
 import gregtech.api.pipenet.tile.TileEntityPipeBase;
 import gregtech.common.ConfigHolder;
-import gregtech.common.pipelike.fluidpipe.BlockFluidPipe;
-import gregtech.common.pipelike.fluidpipe.tile.TileEntityFluidPipeTickable;
+import gregtech.common.pipelike.fluidpipe.net.FluidPipeNet;
 import mcjty.theoneprobe.api.IProbeHitData;
 import mcjty.theoneprobe.api.IProbeInfo;
 import mcjty.theoneprobe.api.IProbeInfoProvider;
@@ -56,13 +55,13 @@ public class DebugPipeNetInfoProvider implements IProbeInfoProvider {
                         .append(", mark: ").append(node.mark)
                         .append(", blocked: ").append(node.blockedConnections).append("}");
                     probeInfo.text(builder.toString());
-                }
-                probeInfo.text("tile blocked: " + pipeTile.getBlockedConnections());
-                if (blockPipe instanceof BlockFluidPipe) {
-                    if (pipeTile instanceof TileEntityFluidPipeTickable) {
-                        probeInfo.text("tile active: " + ((TileEntityFluidPipeTickable) pipeTile).isActive());
+                    if (pipeNet instanceof FluidPipeNet) {
+                        FluidPipeNet fluidPipeNet = (FluidPipeNet) pipeNet;
+                        probeInfo.text("fluid transferred: " + fluidPipeNet.getFluidTransferredLastUpdate() +
+                            " last tick, " + fluidPipeNet.getTotalFluidTransferred() + " total");
                     }
                 }
+                probeInfo.text("tile blocked: " + pipeTile.getBlockedConnections());
             }
         }
     }
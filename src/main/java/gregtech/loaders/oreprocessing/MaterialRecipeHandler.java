@@ -12,6 +12,7 @@ import gregtech.api.unification.material.type.DustMaterial.MatFlags;
 import gregtech.api.unification.ore.OrePrefix;
 import gregtech.api.unification.stack.UnificationEntry;
 import gregtech.api.util.GTUtility;
+import gregtech.api.util.RegistrationBuffer;
 import gregtech.common.items.MetaItems;
 import net.minecraft.item.ItemStack;
 
@@ -102,7 +103,7 @@ public class MaterialRecipeHandler {
                         .blastFurnaceTemp(metalMaterial.blastFurnaceTemperature)
                         .duration(duration).EUt(120);
                     if (circuitRequiringMaterials.contains(material)) {
-                        ingotSmeltingBuilder.inputs(new CountableIngredient(new IntCircuitIngredient(0), 0));
+                        ingotSmeltingBuilder.inputs(new CountableIngredient(RegistrationBuffer.createIngredient(() -> new IntCircuitIngredient(0)), 0));
                     }
                     ingotSmeltingBuilder.buildAndRegister();
 
@@ -150,12 +151,12 @@ public class MaterialRecipeHandler {
             dustStack, "XX", "XX", 'X', new UnificationEntry(orePrefix, material));
 
         RecipeMaps.PACKER_RECIPES.recipeBuilder().input(orePrefix, material, 4)
-            .inputs(new CountableIngredient(new IntCircuitIngredient(2), 0))
+            .inputs(new CountableIngredient(RegistrationBuffer.createIngredient(() -> new IntCircuitIngredient(2)), 0))
             .outputs(dustStack)
             .buildAndRegister();
 
         RecipeMaps.UNPACKER_RECIPES.recipeBuilder().input(OrePrefix.dust, material)
-            .inputs(new CountableIngredient(new IntCircuitIngredient(2), 0))
+            .inputs(new CountableIngredient(RegistrationBuffer.createIngredient(() -> new IntCircuitIngredient(2)), 0))
             .outputs(GTUtility.copyAmount(4, smallDustStack))
             .buildAndRegister();
     }
@@ -170,12 +171,12 @@ public class MaterialRecipeHandler {
             dustStack, "XXX", "XXX", "XXX", 'X', new UnificationEntry(orePrefix, material));
 
         RecipeMaps.PACKER_RECIPES.recipeBuilder().input(orePrefix, material, 9)
-            .inputs(new CountableIngredient(new IntCircuitIngredient(1), 0))
+            .inputs(new CountableIngredient(RegistrationBuffer.createIngredient(() -> new IntCircuitIngredient(1)), 0))
             .outputs(dustStack)
             .buildAndRegister();
 
         RecipeMaps.UNPACKER_RECIPES.recipeBuilder().input(OrePrefix.dust, material)
-            .inputs(new CountableIngredient(new IntCircuitIngredient(1), 0))
+            .inputs(new CountableIngredient(RegistrationBuffer.createIngredient(() -> new IntCircuitIngredient(1)), 0))
             .outputs(GTUtility.copyAmount(9, tinyDustStack))
             .buildAndRegister();
     }
@@ -315,12 +316,12 @@ public class MaterialRecipeHandler {
                 ingotStack, "XXX", "XXX", "XXX", 'X', new UnificationEntry(orePrefix, material));
 
             RecipeMaps.UNPACKER_RECIPES.recipeBuilder().input(OrePrefix.ingot, material)
-                .inputs(new CountableIngredient(new IntCircuitIngredient(1), 0))
+                .inputs(new CountableIngredient(RegistrationBuffer.createIngredient(() -> new IntCircuitIngredient(1)), 0))
                 .outputs(GTUtility.copyAmount(9, nuggetStack))
                 .buildAndRegister();
 
             RecipeMaps.PACKER_RECIPES.recipeBuilder().input(orePrefix, material, 9)
-                .inputs(new CountableIngredient(new IntCircuitIngredient(1), 0))
+                .inputs(new CountableIngredient(RegistrationBuffer.createIngredient(() -> new IntCircuitIngredient(1)), 0))
                 .outputs(ingotStack)
                 .buildAndRegister();
 
@@ -12,6 +12,7 @@ import gregtech.api.unification.material.Materials;
 import gregtech.api.unification.material.type.*;
 import gregtech.api.unification.ore.OrePrefix;
 import gregtech.api.unification.stack.UnificationEntry;
+import gregtech.api.util.RegistrationBuffer;
 import gregtech.common.items.MetaItems;
 import net.minecraft.init.Blocks;
 import net.minecraft.item.EnumDyeColor;
@@ -110,7 +111,7 @@ public class ToolRecipeHandler {
 
                 String recipeNameFirst = String.format("%s_%s_%s_full", toolItems[i].unlocalizedName, solidMaterial, batteryItem.unlocalizedName);
                 ModHandler.addShapedEnergyTransferRecipe(recipeNameFirst, chargedDrillStack,
-                    Ingredient.fromStacks(batteryStack), false,
+                    RegistrationBuffer.createIngredient(() -> Ingredient.fromStacks(batteryStack)), false,
                     "SXd", "GMG", "PBP",
                     'X', new UnificationEntry(toolPrefix, solidMaterial),
                     'M', motorItems[i].getStackForm(),
@@ -124,7 +125,7 @@ public class ToolRecipeHandler {
             ItemStack powerUnitStack = powerUnitItems[i].getStackForm();
             String recipeNameSecond = String.format("%s_%s_unit", toolItems[i].unlocalizedName, solidMaterial);
             ModHandler.addShapedEnergyTransferRecipe(recipeNameSecond, drillStack,
-                Ingredient.fromStacks(powerUnitStack), true,
+                RegistrationBuffer.createIngredient(() -> Ingredient.fromStacks(powerUnitStack)), true,
                 "wHd", " U ",
                 'H', new UnificationEntry(toolPrefix, solidMaterial),
                 'U', powerUnitStack);
@@ -229,7 +230,7 @@ public class ToolRecipeHandler {
             String recipeNameFirst = String.format("jack_hammer_%s_%s_full", batteryItem.unlocalizedName, material.toString());
 
             ModHandler.addShapedEnergyTransferRecipe(recipeNameFirst, chargedHammerStack,
-                Ingredient.fromStacks(batteryStack), false,
+                RegistrationBuffer.createIngredient(() -> Ingredient.fromStacks(batteryStack)), false,
                 "SXd", "PRP", "MPB",
                 'X', new UnificationEntry(OrePrefix.stickLong, material),
                 'M', MetaItems.ELECTRIC_PISTON_HV.getStackForm(),
@@ -243,7 +244,7 @@ public class ToolRecipeHandler {
         ItemStack powerUnitStack = MetaItems.JACKHAMMER_BASE.getStackForm();
         String recipeNameSecond = String.format("jack_hammer_%s_unit", material);
         ModHandler.addShapedEnergyTransferRecipe(recipeNameSecond, drillStack,
-            Ingredient.fromStacks(powerUnitStack), true,
+            RegistrationBuffer.createIngredient(() -> Ingredient.fromStacks(powerUnitStack)), true,
             "wHd", " U ",
             'H', new UnificationEntry(orePrefix, material),
             'U', powerUnitStack);